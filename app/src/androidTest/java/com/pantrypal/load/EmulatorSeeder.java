@@ -0,0 +1,134 @@
+package com.pantrypal.load;
+
+import com.google.firebase.FirebaseApp;
+import com.pantrypal.model.Item;
+import com.pantrypal.model.ItemCodec;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+
+// Writes fixtures straight to the Firestore emulator over REST. Going around the SDK keeps
+// the seeded documents out of the app's cache, so the listener under test really has to
+// fetch them. "Bearer owner" bypasses security rules on the emulator.
+final class EmulatorSeeder {
+
+    private static final int COMMIT_SIZE = 500;
+    private static final String[] UNITS = {"pcs", "kg", "g", "L", "ml"};
+
+    private final String host;
+    private final String projectId;
+
+    EmulatorSeeder(String host) {
+        this.host = host;
+        this.projectId = FirebaseApp.getInstance().getOptions().getProjectId();
+    }
+
+    void clearFirestore() throws IOException {
+        request("DELETE", firestoreUrl("/emulator/v1/projects/" + projectId + "/databases/(default)/documents"), null);
+    }
+
+    void clearAuth() throws IOException {
+        request("DELETE", "http://" + host + ":" + EmulatorTestRunner.AUTH_PORT
+                + "/emulator/v1/projects/" + projectId + "/accounts", null);
+    }
+
+    // The user's own household with count items, encoded by ItemCodec like the app writes them
+    void seedHousehold(String userId, int count) throws IOException, JSONException {
+        String household = "households/" + userId;
+        JSONArray writes = new JSONArray();
+        writes.put(update(household, new JSONObject()
+                .put("ownerId", stringValue(userId))
+                .put("members", new JSONObject().put("arrayValue",
+                        new JSONObject().put("values", new JSONArray().put(stringValue(userId)))))));
+        commit(writes);
+
+        LocalDate today = LocalDate.now();
+        writes = new JSONArray();
+        for (int i = 0; i < count; i++) {
+            Item item = new Item(userId, "Item " + i, 1 + i % 12, UNITS[i % UNITS.length],
+                    today.minusDays(i % 30), today.plusDays(i % 60 - 5));
+            writes.put(update(household + "/items/" + String.format("seed-%06d", i), fieldsOf(ItemCodec.toMap(item))));
+            if (writes.length() == COMMIT_SIZE) {
+                commit(writes);
+                writes = new JSONArray();
+            }
+        }
+        if (writes.length() > 0) commit(writes);
+    }
+
+    // Items written under the given document IDs, straight into the user's household
+    void seedItems(String userId, Map<String, Item> itemsById) throws IOException, JSONException {
+        JSONArray writes = new JSONArray();
+        for (Map.Entry<String, Item> entry : itemsById.entrySet()) {
+            writes.put(update("households/" + userId + "/items/" + entry.getKey(),
+                    fieldsOf(ItemCodec.toMap(entry.getValue()))));
+        }
+        commit(writes);
+    }
+
+    private JSONObject update(String path, JSONObject fields) throws JSONException {
+        return new JSONObject().put("update", new JSONObject()
+                .put("name", "projects/" + projectId + "/databases/(default)/documents/" + path)
+                .put("fields", fields));
+    }
+
+    private static JSONObject fieldsOf(Map<String, Object> map) throws JSONException {
+        JSONObject fields = new JSONObject();
+        for (Map.Entry<String, Object> entry : map.entrySet()) {
+            Object value = entry.getValue();
+            if (value instanceof String) {
+                fields.put(entry.getKey(), stringValue((String) value));
+            } else if (value instanceof Integer || value instanceof Long) {
+                fields.put(entry.getKey(), new JSONObject().put("integerValue", value.toString()));
+            } else if (value instanceof Number) {
+                fields.put(entry.getKey(), new JSONObject().put("doubleValue", ((Number) value).doubleValue()));
+            }
+        }
+        return fields;
+    }
+
+    private static JSONObject stringValue(String value) throws JSONException {
+        return new JSONObject().put("stringValue", value);
+    }
+
+    private void commit(JSONArray writes) throws IOException, JSONException {
+        String body = new JSONObject().put("writes", writes).toString();
+        request("POST", firestoreUrl("/v1/projects/" + projectId + "/databases/(default)/documents:commit"), body);
+    }
+
+    private String firestoreUrl(String path) {
+        return "http://" + host + ":" + EmulatorTestRunner.FIRESTORE_PORT + path;
+    }
+
+    private static void request(String method, String url, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+        try {
+            connection.setRequestMethod(method);
+            connection.setRequestProperty("Authorization", "Bearer owner");
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", "application/json");
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body.getBytes(StandardCharsets.UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            if (status >= 300) throw new IOException(method + " " + url + " returned " + status);
+            try (InputStream in = connection.getInputStream()) {
+                while (in.read() != -1) { }
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.pantrypal.load;
+
+import android.app.Application;
+import android.os.Bundle;
+
+import androidx.test.runner.AndroidJUnitRunner;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreSettings;
+import com.google.firebase.firestore.MemoryCacheSettings;
+
+// Points Firestore and Auth at the local Emulator Suite when the pantrypal.emulatorHost
+// argument is given (10.0.2.2 from an Android emulator). This has to happen before anything
+// in the app touches Firebase, hence a runner rather than a @BeforeClass.
+public class EmulatorTestRunner extends AndroidJUnitRunner {
+
+    static final String ARG_EMULATOR_HOST = "pantrypal.emulatorHost";
+    static final int FIRESTORE_PORT = 8080;
+    static final int AUTH_PORT = 9099;
+
+    private static String emulatorHost;
+
+    @Override
+    public void onCreate(Bundle arguments) {
+        emulatorHost = arguments != null ? arguments.getString(ARG_EMULATOR_HOST) : null;
+        super.onCreate(arguments);
+    }
+
+    @Override
+    public void callApplicationOnCreate(Application app) {
+        super.callApplicationOnCreate(app);
+        if (emulatorHost == null) return;
+
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        db.useEmulator(emulatorHost, FIRESTORE_PORT);
+        // A disk cache would survive between runs and answer the first snapshot locally
+        db.setFirestoreSettings(new FirebaseFirestoreSettings.Builder()
+                .setLocalCacheSettings(MemoryCacheSettings.newBuilder().build())
+                .build());
+        FirebaseAuth.getInstance().useEmulator(emulatorHost, AUTH_PORT);
+    }
+
+    // Null when the suite is not running against the emulator
+    static String getEmulatorHost() {
+        return emulatorHost;
+    }
+}
@@ -0,0 +1,115 @@
+package com.pantrypal.load;
+
+import android.content.Context;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.pantrypal.model.FirestoreManager;
+import com.pantrypal.model.Item;
+import com.pantrypal.model.ItemChange;
+import com.pantrypal.model.ItemPager;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+
+// Page boundaries against the Firestore emulator; skipped without the emulator host argument,
+// like PantryLoadTest
+@RunWith(AndroidJUnit4.class)
+public class ItemPagerTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final long TIMEOUT_S = 60;
+
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private final FirestoreManager manager = new FirestoreManager();
+    // Both are only touched on the main thread, where the pager delivers
+    private final Set<String> seen = new HashSet<>();
+    private final Map<String, CountDownLatch> latches = new LinkedHashMap<>();
+    private EmulatorSeeder seeder;
+    private String userId;
+    private ItemPager pager;
+
+    @Before
+    public void setUp() throws Exception {
+        String host = EmulatorTestRunner.getEmulatorHost();
+        assumeTrue("Needs the " + EmulatorTestRunner.ARG_EMULATOR_HOST + " argument", host != null);
+        seeder = new EmulatorSeeder(host);
+        seeder.clearFirestore();
+        userId = PantryLoadTest.signIn("pager@pantrypal.test");
+        PantryLoadTest.skipMigration(context, userId);
+        manager.useHousehold(userId);
+        seeder.seedHousehold(userId, 0);
+    }
+
+    @After
+    public void tearDown() {
+        if (pager != null) InstrumentationRegistry.getInstrumentation().runOnMainSync(manager::stopListening);
+        FirebaseAuth.getInstance().signOut();
+    }
+
+    @Test
+    public void insertBetweenPagesIsDelivered() throws Exception {
+        // Same expiry throughout, so the order (and the page split) is by document ID:
+        // lot-00..lot-09 on the first page, lot-10..lot-19 on the second
+        LocalDate expiry = LocalDate.now().plusDays(3);
+        Map<String, Item> items = new LinkedHashMap<>();
+        for (int i = 0; i < 2 * PAGE_SIZE; i++) items.put(String.format("lot-%02d", i), item("Item " + i, expiry));
+        seeder.seedItems(userId, items);
+
+        CountDownLatch firstPage = awaitDocument("lot-09");
+        CountDownLatch secondPage = awaitDocument("lot-19");
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                pager = manager.startPagingItems(userId, PAGE_SIZE, (changes, fullSnapshot) -> {
+                    for (ItemChange change : changes) {
+                        if (change.getType() != ItemChange.Type.REMOVED) seen.add(change.getItem().getDocumentId());
+                    }
+                    for (Map.Entry<String, CountDownLatch> waiting : latches.entrySet()) {
+                        if (seen.contains(waiting.getKey())) waiting.getValue().countDown();
+                    }
+                }));
+        assertTrue("First page never loaded", firstPage.await(TIMEOUT_S, TimeUnit.SECONDS));
+
+        // Scrolling to the end of the first page fetches the second; both stay live
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> pager.onVisibleRangeChanged(0, PAGE_SIZE - 1));
+        assertTrue("Second page never loaded", secondPage.await(TIMEOUT_S, TimeUnit.SECONDS));
+
+        // Sorts after the first page's last row and before the second page's first
+        CountDownLatch inserted = awaitDocument("lot-09a");
+        Map<String, Item> insert = new LinkedHashMap<>();
+        insert.put("lot-09a", item("Between pages", expiry));
+        seeder.seedItems(userId, insert);
+
+        assertTrue("Insert between pages was never delivered", inserted.await(TIMEOUT_S, TimeUnit.SECONDS));
+    }
+
+    private CountDownLatch awaitDocument(String documentId) {
+        CountDownLatch latch = new CountDownLatch(1);
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+            if (seen.contains(documentId)) {
+                latch.countDown();
+            } else {
+                latches.put(documentId, latch);
+            }
+        });
+        return latch;
+    }
+
+    private Item item(String name, LocalDate expiry) {
+        return new Item(userId, name, 1, "pcs", LocalDate.now(), expiry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.pantrypal.load;
+
+import android.os.Bundle;
+
+import androidx.test.platform.app.InstrumentationRegistry;
+
+// Regression budgets for one pantry size, in milliseconds. They are meant for an
+// emulator-backed run on a mid-range device; pass pantrypal.loadBudgetScale (e.g. 2) to widen
+// them on slower hardware rather than editing the numbers.
+final class LoadBudget {
+
+    static final String ARG_SCALE = "pantrypal.loadBudgetScale";
+
+    final long firstSnapshotMs;
+    final long addToUiMs;
+    final long updateToUiMs;
+    final long mainThreadLoadMs;
+
+    private LoadBudget(long firstSnapshotMs, long addToUiMs, long updateToUiMs, long mainThreadLoadMs) {
+        double scale = scale();
+        this.firstSnapshotMs = Math.round(firstSnapshotMs * scale);
+        this.addToUiMs = Math.round(addToUiMs * scale);
+        this.updateToUiMs = Math.round(updateToUiMs * scale);
+        this.mainThreadLoadMs = Math.round(mainThreadLoadMs * scale);
+    }
+
+    static LoadBudget forSize(int items) {
+        if (items <= 1_000) return new LoadBudget(3_000, 500, 500, 800);
+        if (items <= 10_000) return new LoadBudget(10_000, 800, 800, 3_000);
+        return new LoadBudget(40_000, 1_500, 1_500, 12_000);
+    }
+
+    private static double scale() {
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        String scale = arguments.getString(ARG_SCALE);
+        return scale != null ? Double.parseDouble(scale) : 1.0;
+    }
+}
@@ -0,0 +1,320 @@
+package com.pantrypal.load;
+
+import android.Manifest;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Build;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import android.util.Printer;
+
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseAuthUserCollisionException;
+import com.pantrypal.ItemAdapter;
+import com.pantrypal.MainActivity;
+import com.pantrypal.R;
+import com.pantrypal.model.FirestoreManager;
+import com.pantrypal.model.Item;
+import com.pantrypal.model.ItemRowState;
+import com.pantrypal.model.PantryRepository;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import static org.junit.Assume.assumeTrue;
+
+// Seeds one user's household in the Firestore emulator and measures, per pantry size:
+//  - time from starting the item listener to its first full snapshot
+//  - time from addItem / updateItemQuantity to the list committing the change
+//  - main-thread time from launching MainActivity until the whole pantry is on screen
+// Any number over its LoadBudget fails the run. Needs `firebase emulators:start --only
+// firestore,auth` and -Pandroid.testInstrumentationRunnerArguments.pantrypal.emulatorHost=10.0.2.2;
+// without the host argument the suite is skipped.
+@RunWith(Parameterized.class)
+public class PantryLoadTest {
+
+    private static final String TAG = "PantryLoad";
+    private static final String PASSWORD = "load-test-password";
+    private static final int WRITE_SAMPLES = 10;
+    private static final long TIMEOUT_S = 300;
+
+    @Parameterized.Parameters(name = "{0} items")
+    public static Collection<Object[]> sizes() {
+        return Arrays.asList(new Object[][]{{1_000}, {10_000}, {50_000}});
+    }
+
+    private final int size;
+    private final Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+    private final List<String> failures = new ArrayList<>();
+
+    public PantryLoadTest(int size) {
+        this.size = size;
+    }
+
+    @BeforeClass
+    public static void resetEmulator() throws Exception {
+        String host = EmulatorTestRunner.getEmulatorHost();
+        assumeTrue("Needs the " + EmulatorTestRunner.ARG_EMULATOR_HOST + " argument", host != null);
+        new EmulatorSeeder(host).clearAuth();
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU) {
+            InstrumentationRegistry.getInstrumentation().getUiAutomation()
+                    .grantRuntimePermission("com.pantrypal", Manifest.permission.POST_NOTIFICATIONS);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> PantryRepository.getInstance(context).clear());
+        FirebaseAuth.getInstance().signOut();
+    }
+
+    @Test
+    public void staysWithinBudget() throws Exception {
+        EmulatorSeeder seeder = new EmulatorSeeder(EmulatorTestRunner.getEmulatorHost());
+        seeder.clearFirestore();
+        String userId = signIn("load-" + size + "@pantrypal.test");
+        skipMigration(context, userId);
+        seeder.seedHousehold(userId, size);
+
+        LoadBudget budget = LoadBudget.forSize(size);
+        check("listener first snapshot", measureFirstSnapshot(userId), budget.firstSnapshotMs);
+
+        MainThreadClock clock = new MainThreadClock();
+        clock.install();
+        Intent intent = new Intent(context, MainActivity.class)
+                .putExtra(MainActivity.EXTRA_SKIP_STARTUP_SNAPSHOT, true);
+        try (ActivityScenario<MainActivity> scenario = ActivityScenario.launch(intent)) {
+            awaitList(scenario, list -> list.size() >= size);
+            check("main thread until list shown", clock.uninstall(), budget.mainThreadLoadMs);
+
+            measureWrites(scenario, userId, budget);
+        } finally {
+            clock.uninstall();
+        }
+
+        assertTrue(size + " items over budget: " + failures, failures.isEmpty());
+    }
+
+    // Measurements
+
+    private long measureFirstSnapshot(String userId) throws InterruptedException {
+        FirestoreManager manager = new FirestoreManager();
+        manager.useHousehold(userId);
+        CountDownLatch delivered = new CountDownLatch(1);
+        int[] received = {0};
+
+        long start = SystemClock.elapsedRealtime();
+        long[] end = {0};
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                manager.startListeningForItemChanges(userId, (changes, fullSnapshot) -> {
+                    if (!fullSnapshot || delivered.getCount() == 0) return;
+                    end[0] = SystemClock.elapsedRealtime();
+                    received[0] = changes.size();
+                    delivered.countDown();
+                }));
+        try {
+            if (!delivered.await(TIMEOUT_S, TimeUnit.SECONDS)) fail("No snapshot for " + size + " items");
+        } finally {
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(manager::stopListening);
+        }
+        assertTrue("Snapshot held " + received[0] + " of " + size + " items", received[0] >= size);
+        return end[0] - start;
+    }
+
+    private void measureWrites(ActivityScenario<MainActivity> scenario, String userId, LoadBudget budget)
+            throws InterruptedException {
+        FirestoreManager manager = PantryRepository.getInstance(context).getFirestoreManager();
+        LocalDate today = LocalDate.now();
+        List<Long> adds = new ArrayList<>();
+        List<Long> updates = new ArrayList<>();
+
+        for (int i = 0; i < WRITE_SAMPLES; i++) {
+            // Already expired, so it sorts to the top and is inside even a paged window
+            String name = "Load probe " + i;
+            Item probe = new Item(userId, name, 1, "pcs", today, today.minusDays(1));
+
+            ListWatch added = watch(scenario, list -> find(list, name) != null);
+            long start = SystemClock.elapsedRealtime();
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> manager.addItem(probe, null));
+            adds.add(added.await() - start);
+
+            String documentId = find(added.list, name).getDocumentId();
+            ListWatch updated = watch(scenario, list -> {
+                Item item = findById(list, documentId);
+                return item != null && item.getQuantity() == 2;
+            });
+            start = SystemClock.elapsedRealtime();
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                    manager.updateItemQuantity(documentId, 2, null));
+            updates.add(updated.await() - start);
+        }
+
+        check("addItem to list (median)", median(adds), budget.addToUiMs);
+        check("updateItemQuantity to list (median)", median(updates), budget.updateToUiMs);
+    }
+
+    private void check(String metric, long valueMs, long budgetMs) {
+        Log.i(TAG, size + " items, " + metric + ": " + valueMs + " ms (budget " + budgetMs + " ms)");
+        if (valueMs > budgetMs) failures.add(metric + " " + valueMs + " ms > " + budgetMs + " ms");
+    }
+
+    // Helpers
+
+    static String signIn(String email) throws ExecutionException, InterruptedException {
+        FirebaseAuth auth = FirebaseAuth.getInstance();
+        try {
+            Tasks.await(auth.createUserWithEmailAndPassword(email, PASSWORD));
+        } catch (ExecutionException e) {
+            if (!(e.getCause() instanceof FirebaseAuthUserCollisionException)) throw e;
+            Tasks.await(auth.signInWithEmailAndPassword(email, PASSWORD));
+        }
+        return auth.getCurrentUser().getUid();
+    }
+
+    // Seeded straight into the household layout, so there is nothing to migrate
+    static void skipMigration(Context context, String userId) {
+        context.getSharedPreferences("household_migration", Context.MODE_PRIVATE)
+                .edit().putBoolean("done_" + userId, true).commit();
+    }
+
+    private void awaitList(ActivityScenario<MainActivity> scenario, Predicate<List<Item>> condition)
+            throws InterruptedException {
+        watch(scenario, condition).await();
+    }
+
+    // Watches the adapter for the first committed list matching the condition, including the
+    // one already showing
+    private ListWatch watch(ActivityScenario<MainActivity> scenario, Predicate<List<Item>> condition) {
+        ListWatch watch = new ListWatch(condition);
+        scenario.onActivity(activity -> {
+            RecyclerView recyclerView = activity.findViewById(R.id.recyclerViewItems);
+            ItemAdapter adapter = (ItemAdapter) recyclerView.getAdapter();
+            watch.adapter = adapter;
+            adapter.registerAdapterDataObserver(watch);
+            watch.check();
+        });
+        return watch;
+    }
+
+    // Adapter notifications are dispatched right after a new list is committed
+    private class ListWatch extends RecyclerView.AdapterDataObserver {
+        private final Predicate<List<Item>> condition;
+        private final CountDownLatch matched = new CountDownLatch(1);
+        private ItemAdapter adapter;
+        private volatile long matchedAt;
+        private volatile List<Item> list;
+
+        ListWatch(Predicate<List<Item>> condition) {
+            this.condition = condition;
+        }
+
+        void check() {
+            if (matched.getCount() == 0) return;
+            List<Item> currentList = new ArrayList<>();
+            for (ItemRowState row : adapter.getCurrentList()) currentList.add(row.getItem());
+            if (!condition.test(currentList)) return;
+            matchedAt = SystemClock.elapsedRealtime();
+            list = currentList;
+            matched.countDown();
+            adapter.unregisterAdapterDataObserver(this);
+        }
+
+        @Override
+        public void onChanged() { check(); }
+
+        @Override
+        public void onItemRangeChanged(int positionStart, int itemCount) { check(); }
+
+        @Override
+        public void onItemRangeInserted(int positionStart, int itemCount) { check(); }
+
+        @Override
+        public void onItemRangeRemoved(int positionStart, int itemCount) { check(); }
+
+        @Override
+        public void onItemRangeMoved(int fromPosition, int toPosition, int itemCount) { check(); }
+
+        long await() throws InterruptedException {
+            if (!matched.await(TIMEOUT_S, TimeUnit.SECONDS)) fail("List never updated (" + size + " items)");
+            return matchedAt;
+        }
+    }
+
+    private static Item find(List<Item> list, String name) {
+        for (Item item : list) {
+            if (name.equals(item.getName())) return item;
+        }
+        return null;
+    }
+
+    private static Item findById(List<Item> list, String documentId) {
+        for (Item item : list) {
+            if (documentId.equals(item.getDocumentId())) return item;
+        }
+        return null;
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+    // Sums how long the main looper spends dispatching messages, from its own log lines
+    private static class MainThreadClock implements Printer {
+        private long busyNanos;
+        private long dispatchStart;
+        private boolean installed;
+
+        void install() {
+            installed = true;
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() ->
+                    Looper.getMainLooper().setMessageLogging(this));
+        }
+
+        // Busy time in ms since install()
+        long uninstall() {
+            if (!installed) return busyNanos / 1_000_000;
+            installed = false;
+            long[] busy = new long[1];
+            InstrumentationRegistry.getInstrumentation().runOnMainSync(() -> {
+                Looper.getMainLooper().setMessageLogging(null);
+                busy[0] = busyNanos;
+            });
+            return busy[0] / 1_000_000;
+        }
+
+        @Override
+        public void println(String line) {
+            if (line.startsWith(">>>>>")) {
+                dispatchStart = System.nanoTime();
+            } else if (line.startsWith("<<<<<") && dispatchStart != 0) {
+                busyNanos += System.nanoTime() - dispatchStart;
+                dispatchStart = 0;
+            }
+        }
+    }
+}
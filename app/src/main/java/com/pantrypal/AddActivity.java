@@ -5,7 +5,6 @@ import android.content.Context;
 import android.content.SharedPreferences;
 import android.os.Bundle;
 import android.text.InputType;
-import android.text.TextUtils;
 import android.view.View;
 import android.widget.AdapterView;
 import android.widget.Button;
@@ -28,6 +27,9 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.pantrypal.model.FirestoreManager;
 import com.pantrypal.model.Item;
+import com.pantrypal.model.ItemValidator;
+import com.pantrypal.model.PantryClock;
+import com.pantrypal.model.PantryRepository;
 
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -48,7 +50,7 @@ public class AddActivity extends AppCompatActivity {
 
     // --------------- FIREBASE & HELPERS ---------------
     private FirebaseAuth mAuth;
-    private FirestoreManager firestoreManager;
+    private PantryRepository repository;
     private SharedPreferences prefs;
 
     // --------------- DATE FORMATTERS ---------------
@@ -78,7 +80,7 @@ public class AddActivity extends AppCompatActivity {
 
         // --------------- INITIALIZATION ---------------
         mAuth = FirebaseAuth.getInstance();
-        firestoreManager = new FirestoreManager();
+        repository = PantryRepository.getInstance(this);
         prefs = getSharedPreferences("PantryPalPrefs", Context.MODE_PRIVATE);
 
         initializeViews();
@@ -246,41 +248,21 @@ public class AddActivity extends AppCompatActivity {
         LocalDate expiryDateObj;
 
         // --------------- INPUT VALIDATION ---------------
-        if (TextUtils.isEmpty(name)) {
-            etItemName.setError("Item name required");
+        String nameError = ItemValidator.nameError(name);
+        if (nameError != null) {
+            etItemName.setError(nameError);
             etItemName.requestFocus();
             return;
         }
 
-        if (TextUtils.isEmpty(quantityStr)) {
-            etQuantity.setError("Quantity required");
-            etQuantity.requestFocus();
-            return;
-        }
-
         // --------------- QUANTITY VALIDATION ---------------
-        double quantityVal;
-        try {
-            quantityVal = Double.parseDouble(quantityStr);
-
-            if (quantityVal <= 0) {
-                etQuantity.setError("Must be > 0");
-                etQuantity.requestFocus();
-                return;
-            }
-
-            if (unit.equalsIgnoreCase("pcs")) {
-                if (quantityVal % 1 != 0) {
-                    etQuantity.setError("Pieces must be whole numbers");
-                    etQuantity.requestFocus();
-                    return;
-                }
-            }
-
-        } catch (NumberFormatException e) {
-            etQuantity.setError("Invalid number");
+        String quantityError = ItemValidator.quantityError(quantityStr, unit);
+        if (quantityError != null) {
+            etQuantity.setError(quantityError);
+            etQuantity.requestFocus();
             return;
         }
+        double quantityVal = Double.parseDouble(quantityStr);
 
         // --------------- DATE VALIDATION ---------------
         try {
@@ -303,7 +285,7 @@ public class AddActivity extends AppCompatActivity {
                     return;
                 }
                 long daysToAdd = Long.parseLong(daysStr);
-                expiryDateObj = LocalDate.now().plusDays(daysToAdd);
+                expiryDateObj = PantryClock.system().today().plusDays(daysToAdd);
             }
         } catch (Exception e) {
             etDaysFromNow.setError("Invalid input");
@@ -320,22 +302,19 @@ public class AddActivity extends AppCompatActivity {
                 expiryDateObj
         );
 
-        btnAddItem.setEnabled(false);
-        btnAddItem.setText("Saving...");
-
-        firestoreManager.addItem(newItem, new FirestoreManager.ActionCallback() {
+        // The list shows it (as pending) right away, so there is nothing to wait for here.
+        // Re-adding the same lot tops up its quantity rather than duplicating it.
+        Context appContext = getApplicationContext();
+        repository.addItem(newItem, new FirestoreManager.ActionCallback() {
             @Override
-            public void onSuccess() {
-                Toast.makeText(AddActivity.this, "Added " + name + " to Pantry!", Toast.LENGTH_SHORT).show();
-                finish();
-            }
+            public void onSuccess() { }
 
             @Override
             public void onFailure(Exception e) {
-                btnAddItem.setEnabled(true);
-                btnAddItem.setText("Add to Checklist");
-                Toast.makeText(AddActivity.this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                Toast.makeText(appContext, "Couldn't save " + name + ": " + e.getMessage(), Toast.LENGTH_SHORT).show();
             }
         });
+        Toast.makeText(this, "Added " + name + " to Pantry!", Toast.LENGTH_SHORT).show();
+        finish();
     }
 }
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.pantrypal;
+
+import android.Manifest;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
+
+import androidx.core.app.NotificationCompat;
+import androidx.core.app.NotificationManagerCompat;
+import androidx.core.content.ContextCompat;
+
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.pantrypal.model.Item;
+import com.pantrypal.model.LocalItemStore;
+
+import java.util.List;
+
+// Fires for the single pending expiry alarm (and after a reboot). Reads only the local
+// pantry cache, never Firestore, then posts one digest and arms the next alarm.
+public class ExpiryReminderReceiver extends BroadcastReceiver {
+
+    private static final String CHANNEL_ID = "expiry_reminders";
+    private static final int NOTIFICATION_ID = 1;
+    private static final int MAX_NAMES_IN_DIGEST = 3;
+
+    @Override
+    public void onReceive(Context context, Intent intent) {
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        if (user == null) return;
+
+        long expiryEpochDay = intent.getLongExtra(ExpiryReminderScheduler.EXTRA_EXPIRY_EPOCH_DAY, Long.MIN_VALUE);
+        PendingResult pendingResult = goAsync();
+
+        if (expiryEpochDay == Long.MIN_VALUE) {
+            ExpiryReminderScheduler.rearm(context, user.getUid());
+            pendingResult.finish();
+            return;
+        }
+
+        LocalItemStore.getInstance(context).loadItemsExpiringOn(user.getUid(), expiryEpochDay, due -> {
+            if (!due.isEmpty()) showDigest(context, due);
+            ExpiryReminderScheduler.rearm(context, user.getUid());
+            pendingResult.finish();
+        });
+    }
+
+    private void showDigest(Context context, List<Item> due) {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(context, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            return;
+        }
+
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O) {
+            NotificationChannel channel = new NotificationChannel(CHANNEL_ID, "Expiry reminders",
+                    NotificationManager.IMPORTANCE_DEFAULT);
+            context.getSystemService(NotificationManager.class).createNotificationChannel(channel);
+        }
+
+        StringBuilder names = new StringBuilder();
+        for (int i = 0; i < due.size() && i < MAX_NAMES_IN_DIGEST; i++) {
+            if (i > 0) names.append(", ");
+            names.append(due.get(i).getName());
+        }
+        if (due.size() > MAX_NAMES_IN_DIGEST) {
+            names.append(" and ").append(due.size() - MAX_NAMES_IN_DIGEST).append(" more");
+        }
+
+        String title = due.size() == 1 ? "1 item expires tomorrow" : due.size() + " items expire tomorrow";
+
+        PendingIntent openApp = PendingIntent.getActivity(context, 0,
+                new Intent(context, MainActivity.class),
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        NotificationCompat.Builder builder = new NotificationCompat.Builder(context, CHANNEL_ID)
+                .setSmallIcon(R.drawable.ic_launcher_foreground)
+                .setContentTitle(title)
+                .setContentText(names.toString())
+                .setContentIntent(openApp)
+                .setAutoCancel(true);
+
+        NotificationManagerCompat.from(context).notify(NOTIFICATION_ID, builder.build());
+    }
+}
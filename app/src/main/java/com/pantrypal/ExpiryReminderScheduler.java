@@ -0,0 +1,104 @@
+package com.pantrypal;
+
+import android.app.AlarmManager;
+import android.app.PendingIntent;
+import android.content.Context;
+import android.content.Intent;
+
+import com.pantrypal.model.Item;
+import com.pantrypal.model.LocalItemStore;
+import com.pantrypal.model.PantryClock;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+// Keeps exactly one alarm pending: the next morning on which something in the cached pantry
+// is about to expire. Everything due that morning goes into a single digest notification.
+public class ExpiryReminderScheduler {
+
+    static final String EXTRA_EXPIRY_EPOCH_DAY = "expiry_epoch_day";
+
+    // Reminders go out at this hour, the day before items expire
+    private static final LocalTime REMINDER_TIME = LocalTime.of(9, 0);
+    private static final int DAYS_BEFORE_EXPIRY = 1;
+    private static final int REQUEST_CODE = 0;
+
+    // Main thread only: a store read in flight, whether another was asked for meanwhile, and
+    // the expiry day the pending alarm is for (NO_EXPIRY: none; UNKNOWN: not known in this process)
+    private static final long UNKNOWN = Long.MIN_VALUE;
+    private static boolean loading;
+    private static boolean reloadRequested;
+    private static long scheduledExpiryDay = UNKNOWN;
+
+    private ExpiryReminderScheduler() { }
+
+    // Plans from the whole local pantry rather than a list on screen, which may be one page of
+    // it, by asking the store for its earliest expiry day. The alarm is only touched when that
+    // day changes. Calls made while the store is being read are folded into one more read.
+    public static void reschedule(Context context, String userId) {
+        if (loading) {
+            reloadRequested = true;
+            return;
+        }
+        loading = true;
+        Context appContext = context.getApplicationContext();
+        long firstExpiryDay = firstRemindableExpiryDay(PantryClock.system().now());
+        LocalItemStore.getInstance(appContext).loadFirstExpiryDay(userId, firstExpiryDay, expiryDay -> {
+            loading = false;
+            if (expiryDay != scheduledExpiryDay) {
+                scheduledExpiryDay = expiryDay;
+                if (expiryDay == Item.NO_EXPIRY) {
+                    cancel(appContext);
+                } else {
+                    schedule(appContext, expiryDay);
+                }
+            }
+            if (reloadRequested) {
+                reloadRequested = false;
+                reschedule(appContext, userId);
+            }
+        });
+    }
+
+    // The pending alarm has fired, so the next one must be armed whatever day it is for
+    static void rearm(Context context, String userId) {
+        scheduledExpiryDay = UNKNOWN;
+        reschedule(context, userId);
+    }
+
+    // Items expiring before this day are past their reminder time already
+    static long firstRemindableExpiryDay(LocalDateTime now) {
+        long today = now.toLocalDate().toEpochDay();
+        boolean todaysReminderPassed = !now.toLocalTime().isBefore(REMINDER_TIME);
+        return today + DAYS_BEFORE_EXPIRY + (todaysReminderPassed ? 1 : 0);
+    }
+
+    private static void schedule(Context context, long expiryEpochDay) {
+        long triggerAt = LocalDate.ofEpochDay(expiryEpochDay - DAYS_BEFORE_EXPIRY)
+                .atTime(REMINDER_TIME)
+                .atZone(ZoneId.systemDefault())
+                .toInstant()
+                .toEpochMilli();
+
+        Intent intent = new Intent(context, ExpiryReminderReceiver.class)
+                .putExtra(EXTRA_EXPIRY_EPOCH_DAY, expiryEpochDay);
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, REQUEST_CODE, intent,
+                PendingIntent.FLAG_UPDATE_CURRENT | PendingIntent.FLAG_IMMUTABLE);
+
+        // Inexact is fine for a morning digest and lets the system batch the wake-up
+        AlarmManager alarmManager = context.getSystemService(AlarmManager.class);
+        alarmManager.setAndAllowWhileIdle(AlarmManager.RTC_WAKEUP, triggerAt, pendingIntent);
+    }
+
+    private static void cancel(Context context) {
+        Intent intent = new Intent(context, ExpiryReminderReceiver.class);
+        PendingIntent pendingIntent = PendingIntent.getBroadcast(context, REQUEST_CODE, intent,
+                PendingIntent.FLAG_NO_CREATE | PendingIntent.FLAG_IMMUTABLE);
+        if (pendingIntent != null) {
+            context.getSystemService(AlarmManager.class).cancel(pendingIntent);
+            pendingIntent.cancel();
+        }
+    }
+}
@@ -1,29 +1,61 @@
 package com.pantrypal;
 
-import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.SparseIntArray;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.ArrayAdapter;
+import android.widget.ImageButton;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
-import androidx.annotation.Nullable;
 import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.pantrypal.model.Item;
+import com.pantrypal.model.ItemRowState;
+import com.pantrypal.model.ItemRowStates;
+import com.pantrypal.model.PantryClock;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
-
-public class ItemAdapter extends ArrayAdapter<Item> {
-
-    private final Context context;
-    private final List<Item> items;
-
-    public ItemAdapter(@NonNull Context context, @NonNull List<Item> items) {
-        super(context, 0, items);
-        this.context = context;
-        this.items = items;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class ItemAdapter extends ListAdapter<ItemRowState, ItemAdapter.ViewHolder> {
+
+    // Lists this short (e.g. the startup snapshot) get their row states on the main thread, so
+    // they are still in the first frame
+    private static final int INLINE_ROWS = 64;
+
+    private final PantryClock clock;
+
+    // Stable IDs are handed out per document ID so RecyclerView can track rows across updates
+    private final Map<String, Long> stableIds = new HashMap<>();
+    private long nextStableId = 0;
+
+    // Row states are built here, once per data change; rowStates is confined to this executor
+    private final ExecutorService rowStateExecutor = Executors.newSingleThreadExecutor();
+    private final ItemRowStates rowStates = new ItemRowStates();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private int submitGeneration;
+    private List<Item> submittedItems = Collections.emptyList();
+    private long submittedDay;
+    // Indicator colors by resource, resolved on first use
+    private final SparseIntArray colors = new SparseIntArray();
+
+    public ItemAdapter(PantryClock clock) {
+        super(DIFF_CALLBACK);
+        this.clock = clock;
+        setHasStableIds(true);
     }
 
     // Interfaces
@@ -31,74 +63,154 @@ public class ItemAdapter extends ArrayAdapter<Item> {
         void onDeleteClick(Item item);
     }
 
+    public interface OnQuantityChangeListener {
+        void onQuantityChange(Item item, double delta);
+    }
+
     private OnDeleteClickListener deleteListener;
+    private OnQuantityChangeListener quantityListener;
 
     public void setOnDeleteClickListener(OnDeleteClickListener listener) {
         this.deleteListener = listener;
     }
 
-    @NonNull
+    public void setOnQuantityChangeListener(OnQuantityChangeListener listener) {
+        this.quantityListener = listener;
+    }
+
+    // Row States
+
+    // Replaces the list. Row states are computed off the main thread (reusing those of
+    // unchanged items) and then diffed; a newer call supersedes one still in progress.
+    public void submitItems(List<Item> items) {
+        int generation = ++submitGeneration;
+        long today = clock.todayEpochDay();
+        submittedItems = items;
+        submittedDay = today;
+
+        if (getCurrentList().isEmpty() && items.size() <= INLINE_ROWS) {
+            submitList(new ItemRowStates().map(items, today));
+            return;
+        }
+        rowStateExecutor.execute(() -> {
+            List<ItemRowState> states = rowStates.map(items, today);
+            mainHandler.post(() -> {
+                if (generation == submitGeneration) submitList(states);
+            });
+        });
+    }
+
+    // Moves the rows to a new day. Only expiry labels and colors change; the order is by
+    // expiry date, so no row moves.
+    public void refreshDay() {
+        if (clock.todayEpochDay() != submittedDay) submitItems(submittedItems);
+    }
+
+    // Diffing (runs on the AsyncListDiffer background thread)
+    private static final DiffUtil.ItemCallback<ItemRowState> DIFF_CALLBACK = new DiffUtil.ItemCallback<ItemRowState>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ItemRowState oldRow, @NonNull ItemRowState newRow) {
+            return Objects.equals(oldRow.getDocumentId(), newRow.getDocumentId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ItemRowState oldRow, @NonNull ItemRowState newRow) {
+            return oldRow == newRow || oldRow.looksLike(newRow);
+        }
+    };
+
+    // Forgets the stable IDs of rows that have left the list (deleted, filtered out or paged
+    // away), so the map never outgrows the list on screen
     @Override
-    public View getView(int position, @Nullable View convertView, @NonNull ViewGroup parent) {
-        View listItem = convertView;
-        if (listItem == null) {
-            listItem = LayoutInflater.from(context).inflate(R.layout.list_item_pantry, parent, false);
+    public void onCurrentListChanged(@NonNull List<ItemRowState> previousList,
+                                     @NonNull List<ItemRowState> currentList) {
+        Set<String> documentIds = new HashSet<>(currentList.size() * 2);
+        for (ItemRowState row : currentList) documentIds.add(row.getDocumentId());
+        stableIds.keySet().retainAll(documentIds);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        String documentId = getItem(position).getDocumentId();
+        Long id = stableIds.get(documentId);
+        if (id == null) {
+            id = nextStableId++;
+            stableIds.put(documentId, id);
         }
+        return id;
+    }
 
-        Item currentItem = items.get(position);
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        View view = LayoutInflater.from(parent.getContext()).inflate(R.layout.list_item_pantry, parent, false);
+        return new ViewHolder(view);
+    }
 
-        // Views
-        TextView tvName = listItem.findViewById(R.id.tvItemName);
-        TextView tvQuantity = listItem.findViewById(R.id.tvItemQuantity);
-        TextView tvExpiry = listItem.findViewById(R.id.tvItemExpiry);
-        View viewExpiryIndicator = listItem.findViewById(R.id.viewExpiryIndicator);
-        android.widget.ImageButton btnDelete = listItem.findViewById(R.id.btnDeleteItem);
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.bind(getItem(position));
+    }
 
-        // Name
-        tvName.setText(currentItem.getName());
+    // View Holder
+    class ViewHolder extends RecyclerView.ViewHolder {
+
+        private final TextView tvName;
+        private final TextView tvQuantity;
+        private final TextView tvExpiry;
+        private final View viewExpiryIndicator;
+
+        ViewHolder(@NonNull View itemView) {
+            super(itemView);
+            tvName = itemView.findViewById(R.id.tvItemName);
+            tvQuantity = itemView.findViewById(R.id.tvItemQuantity);
+            tvExpiry = itemView.findViewById(R.id.tvItemExpiry);
+            viewExpiryIndicator = itemView.findViewById(R.id.viewExpiryIndicator);
+            ImageButton btnDelete = itemView.findViewById(R.id.btnDeleteItem);
+            ImageButton btnDecrease = itemView.findViewById(R.id.btnDecreaseQuantity);
+            ImageButton btnIncrease = itemView.findViewById(R.id.btnIncreaseQuantity);
+
+            // Listeners are bound once per holder and resolve the row at click time
+            btnDelete.setOnClickListener(v -> notifyDelete());
+            itemView.setOnLongClickListener(v -> {
+                notifyDelete();
+                return true;
+            });
+            btnDecrease.setOnClickListener(v -> notifyQuantityChange(-1));
+            btnIncrease.setOnClickListener(v -> notifyQuantityChange(1));
+        }
 
-        // Listeners
-        btnDelete.setOnClickListener(v -> {
-            if (deleteListener != null) {
-                deleteListener.onDeleteClick(currentItem);
+        private void notifyDelete() {
+            int position = getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION && deleteListener != null) {
+                deleteListener.onDeleteClick(getItem(position).getItem());
             }
-        });
-
-        // Quantity
-        String quantityText;
-        if (currentItem.getUnit().equalsIgnoreCase("pcs")) {
-            quantityText = String.format("%d %s", (int) currentItem.getQuantity(), currentItem.getUnit());
-        } else {
-            quantityText = String.format("%.1f %s", currentItem.getQuantity(), currentItem.getUnit());
         }
-        tvQuantity.setText(quantityText);
-
-        // Expiry
-        long daysUntilExpiry = currentItem.getDaysUntilExpiry();
-
-        String expiryText;
-        int indicatorColor;
-
-        if (daysUntilExpiry < 0) {
-            expiryText = "Expired " + Math.abs(daysUntilExpiry) + " days ago";
-            indicatorColor = ContextCompat.getColor(context, android.R.color.holo_red_dark);
-        } else if (daysUntilExpiry == 0) {
-            expiryText = "Expires TODAY!";
-            indicatorColor = ContextCompat.getColor(context, android.R.color.holo_orange_dark);
-        } else if (daysUntilExpiry <= 3) {
-            expiryText = "Expires in " + daysUntilExpiry + " day" + (daysUntilExpiry > 1 ? "s" : "");
-            indicatorColor = ContextCompat.getColor(context, android.R.color.holo_orange_light);
-        } else if (daysUntilExpiry <= 7) {
-            expiryText = "Expires in " + daysUntilExpiry + " days";
-            indicatorColor = ContextCompat.getColor(context, android.R.color.holo_orange_light);
-        } else {
-            expiryText = "Expires in " + daysUntilExpiry + " days";
-            indicatorColor = ContextCompat.getColor(context, android.R.color.holo_green_dark);
+
+        private void notifyQuantityChange(double delta) {
+            int position = getBindingAdapterPosition();
+            if (position != RecyclerView.NO_POSITION && quantityListener != null) {
+                quantityListener.onQuantityChange(getItem(position).getItem(), delta);
+            }
         }
 
-        tvExpiry.setText(expiryText);
-        viewExpiryIndicator.setBackgroundColor(indicatorColor);
+        // Everything was worked out in the row state; nothing here allocates or parses
+        void bind(ItemRowState row) {
+            tvName.setText(row.getName());
+            tvQuantity.setText(row.getQuantityText());
+            tvExpiry.setText(row.getExpiryText());
+            viewExpiryIndicator.setBackgroundColor(color(row.getExpiryColorRes()));
+
+            // Faded until the server has the latest write
+            itemView.setAlpha(row.isPendingWrite() ? 0.6f : 1f);
+        }
 
-        return listItem;
+        private int color(int res) {
+            int index = colors.indexOfKey(res);
+            if (index >= 0) return colors.valueAt(index);
+            int color = ContextCompat.getColor(itemView.getContext(), res);
+            colors.put(res, color);
+            return color;
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,45 +1,71 @@
 package com.pantrypal;
 
+import android.Manifest;
 import android.content.Intent;
+import android.content.pm.PackageManager;
+import android.os.Build;
 import android.os.Bundle;
+import android.text.Editable;
+import android.text.TextWatcher;
+import android.widget.EditText;
 import android.widget.ImageButton;
-import android.widget.ListView;
 import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
+import androidx.annotation.NonNull;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.app.ActivityCompat;
+import androidx.core.content.ContextCompat;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.DividerItemDecoration;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.pantrypal.model.FirestoreManager;
 import com.pantrypal.model.Item;
+import com.pantrypal.model.PantryClock;
+import com.pantrypal.model.PantrySummary;
+import com.pantrypal.model.StartupSnapshot;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 
 public class MainActivity extends AppCompatActivity {
 
+    // Lets the startup benchmark measure a cold start without the on-disk snapshot
+    public static final String EXTRA_SKIP_STARTUP_SNAPSHOT = "com.pantrypal.SKIP_STARTUP_SNAPSHOT";
+
     // --- FIREBASE & DATA ---
-    private FirestoreManager dbManager;
+    private PantryViewModel viewModel;
     private FirebaseAuth mAuth;
     private String currentUserId;
 
     // --- UI COMPONENTS ---
-    private ListView listViewItems;
+    private RecyclerView recyclerViewItems;
     private TextView tvEmptyMessage;
+    private TextView tvSummary;
     private ImageButton btnProfile;
+    private EditText etSearch;
 
     // --- ADAPTER & DATA LIST ---
     private ItemAdapter itemAdapter;
-    private List<Item> itemList;
+    private List<Item> latestItems;
+    private String currentQuery = "";
+    private int searchGeneration;
+    private boolean firstListFrameReported;
+
+    // At midnight rows and the summary move to the new day without reloading anything
+    private final PantryClock.DayListener dayListener = today -> {
+        itemAdapter.refreshDay();
+        refreshSummary();
+    };
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -47,6 +73,11 @@ public class MainActivity extends AppCompatActivity {
         EdgeToEdge.enable(this);
         setContentView(R.layout.activity_main);
 
+        // --- STARTUP SNAPSHOT ---
+        // Read before Firestore or SQLite are touched so the first frame can already show rows
+        StartupSnapshot snapshot = getIntent().getBooleanExtra(EXTRA_SKIP_STARTUP_SNAPSHOT, false)
+                ? null : StartupSnapshot.read(this);
+
         // --- AUTHENTICATION CHECK ---
         mAuth = FirebaseAuth.getInstance();
         FirebaseUser currentUser = mAuth.getCurrentUser();
@@ -74,20 +105,46 @@ public class MainActivity extends AppCompatActivity {
             return insets;
         });
 
-        dbManager = new FirestoreManager();
-
         // --- VIEW INITIALIZATION ---
-        listViewItems = findViewById(R.id.listViewItems);
+        recyclerViewItems = findViewById(R.id.recyclerViewItems);
         tvEmptyMessage = findViewById(R.id.tvEmptyMessage);
+        tvSummary = findViewById(R.id.tvSummary);
         btnProfile = findViewById(R.id.btnProfile);
+        etSearch = findViewById(R.id.etSearch);
         FloatingActionButton fabAdd = findViewById(R.id.fabAdd);
 
         // --- ADAPTER SETUP ---
-        itemList = new ArrayList<>();
-        itemAdapter = new ItemAdapter(this, itemList);
-        listViewItems.setAdapter(itemAdapter);
+        itemAdapter = new ItemAdapter(PantryClock.system());
+        recyclerViewItems.setAdapter(itemAdapter);
+
+        // A short first list is mapped and applied synchronously, so these rows make the first frame
+        if (snapshot != null && snapshot.getUserId().equals(currentUserId)) {
+            latestItems = snapshot.getItems();
+            refreshList();
+        }
+
+        viewModel = new ViewModelProvider(this).get(PantryViewModel.class);
+        viewModel.getClock().addDayListener(dayListener);
+
+        DividerItemDecoration divider = new DividerItemDecoration(this, DividerItemDecoration.VERTICAL);
+        divider.setDrawable(ContextCompat.getDrawable(this, R.drawable.list_divider));
+        recyclerViewItems.addItemDecoration(divider);
 
         itemAdapter.setOnDeleteClickListener(this::showDeleteConfirmation);
+        itemAdapter.setOnQuantityChangeListener(viewModel::adjustQuantity);
+
+        recyclerViewItems.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                // Search results come from the whole pantry, so their positions say nothing
+                // about which pages of the list are in view
+                if (!currentQuery.isEmpty()) return;
+                LinearLayoutManager layoutManager = (LinearLayoutManager) recyclerView.getLayoutManager();
+                viewModel.onVisibleRangeChanged(
+                        layoutManager.findFirstVisibleItemPosition(),
+                        layoutManager.findLastVisibleItemPosition());
+            }
+        });
 
         // --- EVENT LISTENERS ---
         fabAdd.setOnClickListener(v -> {
@@ -100,24 +157,61 @@ public class MainActivity extends AppCompatActivity {
             startActivity(intent);
         });
 
-        listViewItems.setOnItemLongClickListener((parent, view, position, id) -> {
-            Item selectedItem = itemList.get(position);
-            showDeleteConfirmation(selectedItem);
+        // Hidden entry to the metrics debug screen
+        btnProfile.setOnLongClickListener(v -> {
+            startActivity(new Intent(MainActivity.this, MetricsActivity.class));
             return true;
         });
+
+        etSearch.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) { }
+
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) { }
+
+            @Override
+            public void afterTextChanged(Editable s) {
+                currentQuery = s.toString().trim();
+                refreshList();
+            }
+        });
+
+        // --- DATA ---
+        // The shared pantry keeps listening for a while after this screen stops observing
+        viewModel.getItems(currentUserId).observe(this, list -> {
+            latestItems = list;
+            refreshList();
+            refreshSummary();
+            ExpiryReminderScheduler.reschedule(this, currentUserId);
+        });
+
+        requestNotificationPermission();
     }
 
-    // --- LIFECYCLE CALLBACKS ---
     @Override
-    protected void onResume() {
-        super.onResume();
-        loadItems();
+    protected void onStop() {
+        super.onStop();
+        // What was on screen becomes the first frame of the next cold start
+        if (latestItems != null) StartupSnapshot.write(this, currentUserId, latestItems);
+        // The process may be killed in the background before buffered +/- taps are sent
+        if (viewModel != null) viewModel.flushPendingWrites();
     }
 
     @Override
-    protected void onPause() {
-        super.onPause();
-        dbManager.stopListening();
+    protected void onDestroy() {
+        super.onDestroy();
+        // Not set when onCreate bailed out to the login screen
+        if (viewModel != null) viewModel.getClock().removeDayListener(dayListener);
+    }
+
+    // --- PERMISSIONS ---
+    private void requestNotificationPermission() {
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.TIRAMISU
+                && ContextCompat.checkSelfPermission(this, Manifest.permission.POST_NOTIFICATIONS)
+                != PackageManager.PERMISSION_GRANTED) {
+            ActivityCompat.requestPermissions(this, new String[]{Manifest.permission.POST_NOTIFICATIONS}, 0);
+        }
     }
 
     // --- DIALOG HELPERS ---
@@ -132,44 +226,70 @@ public class MainActivity extends AppCompatActivity {
 
     // --- DATABASE OPERATIONS ---
     private void deleteItem(Item item) {
-        dbManager.deleteItem(item.getDocumentId(), new FirestoreManager.ActionCallback() {
+        // The row goes at once; it comes back if the server refuses the delete
+        Toast.makeText(this, "Deleted: " + item.getName(), Toast.LENGTH_SHORT).show();
+        viewModel.deleteItem(item, new FirestoreManager.ActionCallback() {
             @Override
-            public void onSuccess() {
-                Toast.makeText(MainActivity.this, "Deleted: " + item.getName(), Toast.LENGTH_SHORT).show();
-            }
+            public void onSuccess() { }
 
             @Override
             public void onFailure(Exception e) {
-                Toast.makeText(MainActivity.this, "Error: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                Toast.makeText(getApplicationContext(), "Couldn't delete " + item.getName() + ": " + e.getMessage(), Toast.LENGTH_SHORT).show();
             }
         });
     }
 
-    private void loadItems() {
-        dbManager.startListeningForItems(currentUserId, new FirestoreManager.FirestoreCallback() {
+    private void refreshList() {
+        if (latestItems == null) return;
+
+        // Each keystroke or pantry update supersedes any search still in flight
+        int generation = ++searchGeneration;
+        if (currentQuery.isEmpty()) {
+            showItems(latestItems);
+        } else {
+            viewModel.search(currentQuery, results -> {
+                if (generation == searchGeneration) showItems(results);
+            });
+        }
+    }
+
+    private void refreshSummary() {
+        viewModel.loadSummary(currentUserId, new FirestoreManager.SummaryCallback() {
             @Override
-            public void onCallback(List<Item> list) {
-                itemList.clear();
-
-                if (list.isEmpty()) {
-                    tvEmptyMessage.setVisibility(android.view.View.VISIBLE);
-                    listViewItems.setVisibility(android.view.View.GONE);
-                } else {
-                    Collections.sort(list, new Comparator<Item>() {
-                        @Override
-                        public int compare(Item i1, Item i2) {
-                            return Long.compare(i1.getDaysUntilExpiry(), i2.getDaysUntilExpiry());
-                        }
-                    });
-
-                    itemList.addAll(list);
-
-                    tvEmptyMessage.setVisibility(android.view.View.GONE);
-                    listViewItems.setVisibility(android.view.View.VISIBLE);
-                }
-
-                itemAdapter.notifyDataSetChanged();
+            public void onSummary(PantrySummary summary) {
+                tvSummary.setText(summary.getTotalItems() + " items · "
+                        + summary.getExpired() + " expired · "
+                        + summary.getExpiringToday() + " today · "
+                        + summary.getExpiringThisWeek() + " this week");
+                tvSummary.setVisibility(android.view.View.VISIBLE);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                // Keep whatever was shown last
             }
         });
     }
+
+    private void showItems(List<Item> list) {
+        tvEmptyMessage.setText(currentQuery.isEmpty()
+                ? "Your pantry is empty.\nTap + to add items!"
+                : "No items match \"" + currentQuery + "\"");
+
+        if (list.isEmpty()) {
+            tvEmptyMessage.setVisibility(android.view.View.VISIBLE);
+            recyclerViewItems.setVisibility(android.view.View.GONE);
+        } else {
+            tvEmptyMessage.setVisibility(android.view.View.GONE);
+            recyclerViewItems.setVisibility(android.view.View.VISIBLE);
+        }
+
+        // The adapter builds row states and diffs against its previous list off the main thread
+        itemAdapter.submitItems(list);
+
+        if (!firstListFrameReported) {
+            firstListFrameReported = true;
+            reportFullyDrawn();
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.pantrypal;
+
+import android.content.Intent;
+import android.os.Bundle;
+import android.widget.Button;
+import android.widget.ImageButton;
+import android.widget.TextView;
+
+import androidx.activity.EdgeToEdge;
+import androidx.appcompat.app.AppCompatActivity;
+import androidx.core.graphics.Insets;
+import androidx.core.view.ViewCompat;
+import androidx.core.view.WindowInsetsCompat;
+
+import com.pantrypal.model.PantryMetrics;
+
+// Debug screen for PantryMetrics. Not linked from any menu: long-press the profile button.
+public class MetricsActivity extends AppCompatActivity {
+
+    private TextView tvMetrics;
+
+    @Override
+    protected void onCreate(Bundle savedInstanceState) {
+        super.onCreate(savedInstanceState);
+        EdgeToEdge.enable(this);
+        setContentView(R.layout.activity_metrics);
+
+        ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.main), (v, insets) -> {
+            Insets systemBars = insets.getInsets(WindowInsetsCompat.Type.systemBars());
+            v.setPadding(systemBars.left, systemBars.top, systemBars.right, systemBars.bottom);
+            return insets;
+        });
+
+        tvMetrics = findViewById(R.id.tvMetrics);
+        ImageButton btnClose = findViewById(R.id.btnClose);
+        Button btnRefresh = findViewById(R.id.btnRefresh);
+        Button btnShare = findViewById(R.id.btnShare);
+        Button btnReset = findViewById(R.id.btnReset);
+
+        btnClose.setOnClickListener(v -> finish());
+        btnRefresh.setOnClickListener(v -> refresh());
+        btnShare.setOnClickListener(v -> share());
+        btnReset.setOnClickListener(v -> {
+            PantryMetrics.get().reset();
+            refresh();
+        });
+    }
+
+    @Override
+    protected void onResume() {
+        super.onResume();
+        refresh();
+    }
+
+    private void refresh() {
+        tvMetrics.setText(PantryMetrics.get().toJson());
+    }
+
+    private void share() {
+        Intent intent = new Intent(Intent.ACTION_SEND);
+        intent.setType("application/json");
+        intent.putExtra(Intent.EXTRA_SUBJECT, "PantryPal metrics");
+        intent.putExtra(Intent.EXTRA_TEXT, PantryMetrics.get().toJson());
+        startActivity(Intent.createChooser(intent, "Share metrics"));
+    }
+}
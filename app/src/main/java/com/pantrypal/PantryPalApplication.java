@@ -0,0 +1,21 @@
+package com.pantrypal;
+
+import android.app.Application;
+import android.os.Looper;
+
+import com.google.firebase.analytics.FirebaseAnalytics;
+
+public class PantryPalApplication extends Application {
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+
+        // Analytics starts disabled in the manifest and is switched on once the main thread
+        // first goes idle, i.e. after the launch activity has drawn
+        Looper.myQueue().addIdleHandler(() -> {
+            FirebaseAnalytics.getInstance(this).setAnalyticsCollectionEnabled(true);
+            return false;
+        });
+    }
+}
@@ -0,0 +1,60 @@
+package com.pantrypal;
+
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
+import androidx.lifecycle.LiveData;
+
+import com.pantrypal.model.FirestoreManager;
+import com.pantrypal.model.Item;
+import com.pantrypal.model.PantryClock;
+import com.pantrypal.model.PantryRepository;
+
+import java.util.List;
+
+public class PantryViewModel extends AndroidViewModel {
+
+    private final PantryRepository repository;
+
+    public PantryViewModel(@NonNull Application application) {
+        super(application);
+        repository = PantryRepository.getInstance(application);
+    }
+
+    public LiveData<List<Item>> getItems(String userId) {
+        return repository.getItems(userId);
+    }
+
+    public FirestoreManager getFirestoreManager() {
+        return repository.getFirestoreManager();
+    }
+
+    public PantryClock getClock() {
+        return repository.getClock();
+    }
+
+    public void onVisibleRangeChanged(int first, int last) {
+        repository.onVisibleRangeChanged(first, last);
+    }
+
+    public void deleteItem(Item item, FirestoreManager.ActionCallback callback) {
+        repository.deleteItem(item, callback);
+    }
+
+    public void adjustQuantity(Item item, double delta) {
+        repository.adjustQuantity(item, delta);
+    }
+
+    public void flushPendingWrites() {
+        repository.flushPendingWrites();
+    }
+
+    public void loadSummary(String userId, FirestoreManager.SummaryCallback callback) {
+        repository.loadSummary(userId, callback);
+    }
+
+    public void search(String query, FirestoreManager.FirestoreCallback callback) {
+        repository.search(query, callback);
+    }
+}
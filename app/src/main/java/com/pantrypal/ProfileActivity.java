@@ -1,6 +1,7 @@
 package com.pantrypal;
 
 import android.content.Intent;
+import android.net.Uri;
 import android.os.Bundle;
 import android.text.TextUtils;
 import android.view.View;
@@ -11,6 +12,8 @@ import android.widget.TextView;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
+import androidx.activity.result.ActivityResultLauncher;
+import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AlertDialog;
 import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.graphics.Insets;
@@ -23,6 +26,10 @@ import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
 import com.google.firebase.auth.UserProfileChangeRequest;
 import com.pantrypal.model.FirestoreManager;
+import com.pantrypal.model.ItemRecords;
+import com.pantrypal.model.LocalItemStore;
+import com.pantrypal.model.PantryRepository;
+import com.pantrypal.model.PantryTransfer;
 
 public class ProfileActivity extends AppCompatActivity {
 
@@ -34,6 +41,22 @@ public class ProfileActivity extends AppCompatActivity {
     private TextView tvUserName, tvUserEmail;
     private EditText etNewName, etCurrentPasswordPass, etNewPassword, etConfirmPassword;
     private Button btnUpdateName, btnUpdatePassword, btnDeleteAccount, btnLogout;
+    private Button btnImportItems, btnExportCsv, btnExportJson;
+    private TextView tvTransferStatus;
+
+    // Storage Access Framework pickers; they must be registered before the activity starts
+    private final ActivityResultLauncher<String[]> importPicker = registerForActivityResult(
+            new ActivityResultContracts.OpenDocument(), uri -> {
+                if (uri != null) importItems(uri);
+            });
+    private final ActivityResultLauncher<String> csvExportPicker = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("text/csv"), uri -> {
+                if (uri != null) exportItems(uri, ItemRecords.Format.CSV);
+            });
+    private final ActivityResultLauncher<String> jsonExportPicker = registerForActivityResult(
+            new ActivityResultContracts.CreateDocument("application/json"), uri -> {
+                if (uri != null) exportItems(uri, ItemRecords.Format.JSON);
+            });
     private ImageButton btnClose;
 
     // LIFECYCLE
@@ -57,7 +80,7 @@ public class ProfileActivity extends AppCompatActivity {
 
         mAuth = FirebaseAuth.getInstance();
         currentUser = mAuth.getCurrentUser();
-        firestoreManager = new FirestoreManager();
+        firestoreManager = PantryRepository.getInstance(this).getFirestoreManager();
 
         if (currentUser == null) {
             startActivity(new Intent(this, LoginActivity.class));
@@ -85,6 +108,11 @@ public class ProfileActivity extends AppCompatActivity {
         btnUpdatePassword = findViewById(R.id.btnUpdatePassword);
         btnDeleteAccount = findViewById(R.id.btnDeleteAccount);
         btnLogout = findViewById(R.id.btnLogout);
+
+        btnImportItems = findViewById(R.id.btnImportItems);
+        btnExportCsv = findViewById(R.id.btnExportCsv);
+        btnExportJson = findViewById(R.id.btnExportJson);
+        tvTransferStatus = findViewById(R.id.tvTransferStatus);
     }
 
     private void loadUserData() {
@@ -102,6 +130,10 @@ public class ProfileActivity extends AppCompatActivity {
         btnUpdatePassword.setOnClickListener(v -> updatePassword());
         btnDeleteAccount.setOnClickListener(v -> showDeleteAccountDialog());
         btnLogout.setOnClickListener(v -> logout());
+
+        btnImportItems.setOnClickListener(v -> importPicker.launch(new String[]{"text/*", "application/json"}));
+        btnExportCsv.setOnClickListener(v -> csvExportPicker.launch("pantry.csv"));
+        btnExportJson.setOnClickListener(v -> jsonExportPicker.launch("pantry.json"));
     }
 
     // UPDATE NAME
@@ -226,32 +258,143 @@ public class ProfileActivity extends AppCompatActivity {
         currentUser.reauthenticate(credential)
                 .addOnCompleteListener(task -> {
                     if (task.isSuccessful()) {
-                        String userId = currentUser.getUid();
-
-                        currentUser.delete()
-                                .addOnCompleteListener(deleteTask -> {
-                                    if (deleteTask.isSuccessful()) {
-                                        Toast.makeText(this, "Account deleted successfully", Toast.LENGTH_SHORT).show();
-                                        Intent intent = new Intent(this, LoginActivity.class);
-                                        intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
-                                        startActivity(intent);
-                                        finish();
-                                    } else {
-                                        Toast.makeText(this, "Error: " + deleteTask.getException().getMessage(), Toast.LENGTH_SHORT).show();
-                                    }
-                                });
+                        purgePantryThenDeleteAccount(currentUser.getUid());
                     } else {
                         Toast.makeText(this, "Authentication failed. Wrong password.", Toast.LENGTH_SHORT).show();
                     }
                 });
     }
 
+    // The pantry goes first: once the account is gone its documents can no longer be deleted
+    private void purgePantryThenDeleteAccount(String userId) {
+        PantryRepository.getInstance(this).clear();
+        btnDeleteAccount.setEnabled(false);
+        btnDeleteAccount.setText("Deleting...");
+
+        firestoreManager.purgeUserItems(userId, new FirestoreManager.PurgeCallback() {
+            @Override
+            public void onProgress(int deleted, int total) {
+                btnDeleteAccount.setText("Deleting... " + deleted + "/" + total);
+            }
+
+            @Override
+            public void onSuccess() {
+                LocalItemStore.getInstance(ProfileActivity.this).clearUser(userId);
+
+                currentUser.delete()
+                        .addOnCompleteListener(deleteTask -> {
+                            if (deleteTask.isSuccessful()) {
+                                Toast.makeText(ProfileActivity.this, "Account deleted successfully", Toast.LENGTH_SHORT).show();
+                                Intent intent = new Intent(ProfileActivity.this, LoginActivity.class);
+                                intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
+                                startActivity(intent);
+                                finish();
+                            } else {
+                                resetDeleteButton();
+                                Toast.makeText(ProfileActivity.this, "Error: " + deleteTask.getException().getMessage(), Toast.LENGTH_SHORT).show();
+                            }
+                        });
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                // The account is kept, so deleting again picks up where this left off
+                resetDeleteButton();
+                Toast.makeText(ProfileActivity.this, "Error deleting pantry data: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+            }
+        });
+    }
+
+    private void resetDeleteButton() {
+        btnDeleteAccount.setEnabled(true);
+        btnDeleteAccount.setText("Delete Account");
+    }
+
+    // IMPORT / EXPORT
+    private void importItems(Uri uri) {
+        setTransferRunning(true);
+        tvTransferStatus.setText("Importing...");
+
+        PantryTransfer.importItems(this, uri, PantryTransfer.formatOf(this, uri), currentUser.getUid(),
+                firestoreManager, new FirestoreManager.TransferCallback() {
+                    private int imported, skipped, rowErrors;
+
+                    @Override
+                    public void onProgress(int processed, int skippedRows) {
+                        imported = processed;
+                        skipped = skippedRows;
+                        tvTransferStatus.setText("Imported " + imported + " items"
+                                + (skipped > 0 ? ", skipped " + skipped + " invalid rows" : "") + "...");
+                    }
+
+                    @Override
+                    public void onRowError(int line, String message) {
+                        // The first few are worth showing; the rest only count
+                        if (++rowErrors <= 3) {
+                            Toast.makeText(ProfileActivity.this, "Row " + line + ": " + message, Toast.LENGTH_SHORT).show();
+                        }
+                    }
+
+                    @Override
+                    public void onSuccess() {
+                        setTransferRunning(false);
+                        tvTransferStatus.setText("Imported " + imported + " items"
+                                + (skipped > 0 ? ", skipped " + skipped + " invalid rows" : ""));
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        setTransferRunning(false);
+                        tvTransferStatus.setText("Import stopped after " + imported + " items: " + e.getMessage());
+                    }
+                });
+    }
+
+    private void exportItems(Uri uri, ItemRecords.Format format) {
+        setTransferRunning(true);
+        tvTransferStatus.setText("Exporting...");
+
+        PantryTransfer.exportItems(this, uri, format, currentUser.getUid(), firestoreManager,
+                new FirestoreManager.TransferCallback() {
+                    private int exported;
+
+                    @Override
+                    public void onProgress(int processed, int skipped) {
+                        exported = processed;
+                        tvTransferStatus.setText("Exported " + exported + " items...");
+                    }
+
+                    @Override
+                    public void onRowError(int line, String message) { }
+
+                    @Override
+                    public void onSuccess() {
+                        setTransferRunning(false);
+                        tvTransferStatus.setText("Exported " + exported + " items");
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        setTransferRunning(false);
+                        tvTransferStatus.setText("Export failed: " + e.getMessage());
+                    }
+                });
+    }
+
+    private void setTransferRunning(boolean running) {
+        btnImportItems.setEnabled(!running);
+        btnExportCsv.setEnabled(!running);
+        btnExportJson.setEnabled(!running);
+        tvTransferStatus.setVisibility(View.VISIBLE);
+    }
+
     // LOGOUT
     private void logout() {
         new AlertDialog.Builder(this)
                 .setTitle("Logout")
                 .setMessage("Are you sure you want to logout?")
                 .setPositiveButton("Logout", (dialog, which) -> {
+                    PantryRepository.getInstance(this).clear();
                     mAuth.signOut();
                     Intent intent = new Intent(ProfileActivity.this, LoginActivity.class);
                     intent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK | Intent.FLAG_ACTIVITY_CLEAR_TASK);
@@ -0,0 +1,50 @@
+plugins {
+    alias(libs.plugins.android.library)
+    alias(libs.plugins.androidx.benchmark)
+}
+
+// On-device microbenchmarks live in androidTest (androidx.benchmark, JSON results under
+// build/outputs/connected_android_test_additional_output). JVM-only logic is measured with
+// JMH from the unit test source set, only when -Pjmh is given; see JvmBenchmarks for where its
+// JSON is written.
+android {
+    namespace = "com.pantrypal.benchmark"
+    compileSdk {
+        version = release(36)
+    }
+
+    defaultConfig {
+        minSdk = 24
+
+        testInstrumentationRunner = "androidx.benchmark.junit4.AndroidBenchmarkRunner"
+    }
+
+    testBuildType = "release"
+    buildTypes {
+        release {
+            isDefault = true
+        }
+    }
+    compileOptions {
+        isCoreLibraryDesugaringEnabled = true
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+    }
+}
+
+tasks.withType<Test>().configureEach {
+    systemProperty("pantrypal.jmh", providers.gradleProperty("jmh").isPresent)
+}
+
+dependencies {
+    implementation(project(":core"))
+    androidTestImplementation(libs.benchmark.junit4)
+    androidTestImplementation(libs.ext.junit)
+    testImplementation(libs.junit)
+    testImplementation(libs.jmh.core)
+    testAnnotationProcessor(libs.jmh.generator.annprocess)
+    coreLibraryDesugaring(libs.desugar.jdk.libs)
+}
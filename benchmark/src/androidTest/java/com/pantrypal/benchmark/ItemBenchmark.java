@@ -0,0 +1,94 @@
+package com.pantrypal.benchmark;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import com.pantrypal.model.Item;
+import com.pantrypal.model.ItemUnit;
+import com.pantrypal.model.PantryRepository;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+@RunWith(AndroidJUnit4.class)
+public class ItemBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    // Field assignment and date parsing done for every decoded v1 document
+    @Test
+    public void decodeItem() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Item item = new Item();
+            item.setDocumentId("doc-1");
+            item.setUserId(PantryFixtures.USER_ID);
+            item.setName("Milk");
+            item.setQuantity(2);
+            item.setUnit("L");
+            item.setPurchaseDate("2026-01-10");
+            item.setExpiryDate("2026-01-17");
+        }
+    }
+
+    // The same for a v2 document: unit code and epoch days, nothing to parse
+    @Test
+    public void decodeItemV2() {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Item item = new Item();
+            item.setDocumentId("doc-1");
+            item.setUserId(PantryFixtures.USER_ID);
+            item.setName("Milk");
+            item.setQuantity(2);
+            item.setUnitCode(ItemUnit.L);
+            item.setPurchaseEpochDay(20_463);
+            item.setExpiryEpochDay(20_470);
+        }
+    }
+
+    @Test
+    public void daysUntilExpiry() {
+        Item item = PantryFixtures.items(1).get(0);
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            item.getDaysUntilExpiry();
+        }
+    }
+
+    // The sort the pantry list applies to a full snapshot
+    @Test
+    public void expirySort_10k() {
+        sort10k(PantryRepository.LIST_ORDER);
+    }
+
+    // The same items sorted the way the list was before expiry was cached on Item
+    @Test
+    public void expirySortParsing_10k() {
+        sort10k(PantryFixtures.PARSING_ORDER);
+    }
+
+    private void sort10k(Comparator<Item> order) {
+        List<Item> items = PantryFixtures.items(10_000);
+        Collections.shuffle(items, new Random(42));
+        // Items used to hold the ISO strings; only the parsing is measured
+        for (Item item : items) item.getExpiryDate();
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            state.pauseTiming();
+            List<Item> copy = new ArrayList<>(items);
+            state.resumeTiming();
+
+            Collections.sort(copy, order);
+        }
+    }
+}
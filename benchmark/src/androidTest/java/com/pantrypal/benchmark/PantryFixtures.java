@@ -0,0 +1,42 @@
+package com.pantrypal.benchmark;
+
+import com.pantrypal.model.Item;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+final class PantryFixtures {
+
+    static final String USER_ID = "benchmark-user";
+    static final String[] UNITS = {"pcs", "kg", "g", "L", "ml"};
+
+    // How MainActivity sorted before expiry was cached on Item: both ISO expiry strings parsed
+    // and measured from today on every comparison. The before half of the expiry sort numbers.
+    static final Comparator<Item> PARSING_ORDER = (i1, i2) ->
+            Long.compare(parsedDaysUntilExpiry(i1), parsedDaysUntilExpiry(i2));
+
+    private PantryFixtures() { }
+
+    static List<Item> items(int count) {
+        Random random = new Random(count);
+        LocalDate today = LocalDate.now();
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = new Item(USER_ID, "Item " + i, 1 + random.nextInt(10), UNITS[i % UNITS.length],
+                    today, today.plusDays(random.nextInt(120) - 30));
+            item.setDocumentId("doc-" + i);
+            items.add(item);
+        }
+        return items;
+    }
+
+    private static long parsedDaysUntilExpiry(Item item) {
+        String expiry = item.getExpiryDate();
+        if (expiry == null) return 0;
+        return ChronoUnit.DAYS.between(LocalDate.now(), LocalDate.parse(expiry));
+    }
+}
@@ -0,0 +1,87 @@
+package com.pantrypal.benchmark;
+
+import android.content.Context;
+import android.util.SparseIntArray;
+import android.view.View;
+import android.widget.TextView;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.core.content.ContextCompat;
+import androidx.test.annotation.UiThreadTest;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.pantrypal.model.Item;
+import com.pantrypal.model.ItemRowState;
+import com.pantrypal.model.ItemRowStates;
+import com.pantrypal.model.ItemRowText;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// bindRow formats each row on bind, as ItemAdapter used to; bindPrecomputedRow mirrors what
+// ItemAdapter.ViewHolder.bind does now, with text and colors worked out ahead of time
+@RunWith(AndroidJUnit4.class)
+public class RowBindBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    @Test
+    @UiThreadTest
+    public void bindRow() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        TextView tvName = new TextView(context);
+        TextView tvQuantity = new TextView(context);
+        TextView tvExpiry = new TextView(context);
+        View indicator = new View(context);
+
+        List<Item> items = PantryFixtures.items(100);
+        int position = 0;
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Item item = items.get(position++ % items.size());
+            long days = item.getDaysUntilExpiry();
+
+            tvName.setText(item.getName());
+            tvQuantity.setText(ItemRowText.quantityText(item));
+            tvExpiry.setText(ItemRowText.expiryText(days));
+            indicator.setBackgroundColor(ContextCompat.getColor(context, ItemRowText.expiryColorRes(days)));
+        }
+    }
+
+    @Test
+    @UiThreadTest
+    public void bindPrecomputedRow() {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        TextView tvName = new TextView(context);
+        TextView tvQuantity = new TextView(context);
+        TextView tvExpiry = new TextView(context);
+        View indicator = new View(context);
+
+        List<ItemRowState> rows = new ItemRowStates().map(PantryFixtures.items(100), LocalDate.now().toEpochDay());
+        SparseIntArray colors = new SparseIntArray();
+        int position = 0;
+
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            ItemRowState row = rows.get(position++ % rows.size());
+
+            tvName.setText(row.getName());
+            tvQuantity.setText(row.getQuantityText());
+            tvExpiry.setText(row.getExpiryText());
+            int index = colors.indexOfKey(row.getExpiryColorRes());
+            if (index < 0) {
+                colors.put(row.getExpiryColorRes(), ContextCompat.getColor(context, row.getExpiryColorRes()));
+                index = colors.indexOfKey(row.getExpiryColorRes());
+            }
+            indicator.setBackgroundColor(colors.valueAt(index));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.pantrypal.benchmark;
+
+import android.content.Context;
+
+import androidx.benchmark.BenchmarkState;
+import androidx.benchmark.junit4.BenchmarkRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import com.pantrypal.model.Item;
+import com.pantrypal.model.ItemChange;
+import com.pantrypal.model.LocalItemStore;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Time from a decoded snapshot change reaching the local store until the main thread gets it
+// back, which is the path every listener update takes before rendering. Diffing and drawing
+// are not included; PantryLoadTest times a write all the way to the committed list.
+@RunWith(AndroidJUnit4.class)
+public class SnapshotToMainThreadBenchmark {
+
+    @Rule
+    public BenchmarkRule benchmarkRule = new BenchmarkRule();
+
+    private LocalItemStore store;
+    private List<Item> items;
+
+    @Before
+    public void setUp() throws InterruptedException {
+        Context context = InstrumentationRegistry.getInstrumentation().getTargetContext();
+        store = LocalItemStore.getInstance(context);
+        items = PantryFixtures.items(2_000);
+
+        CountDownLatch synced = new CountDownLatch(1);
+        store.syncItems(PantryFixtures.USER_ID, items, list -> synced.countDown());
+        synced.await(30, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void singleChange_2kPantry() throws InterruptedException {
+        int position = 0;
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            Item item = items.get(position++ % items.size());
+            item.setQuantity(item.getQuantity() + 1);
+            List<ItemChange> changes = Collections.singletonList(new ItemChange(ItemChange.Type.MODIFIED, item));
+
+            CountDownLatch rendered = new CountDownLatch(1);
+            store.applyChanges(PantryFixtures.USER_ID, changes, (applied, fullSnapshot) -> rendered.countDown());
+            rendered.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    public void fullSnapshot_2kPantry() throws InterruptedException {
+        BenchmarkState state = benchmarkRule.getState();
+        while (state.keepRunning()) {
+            CountDownLatch rendered = new CountDownLatch(1);
+            store.syncItems(PantryFixtures.USER_ID, items, list -> rendered.countDown());
+            rendered.await(30, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.pantrypal.benchmark;
+
+import org.junit.Test;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.io.File;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Runs the JMH benchmarks from the unit test task and writes the results to
+ * build/outputs/jmh/results.json so they can be compared between runs. Skipped unless Gradle
+ * is given -Pjmh, e.g. {@code ./gradlew :benchmark:testReleaseUnitTest -Pjmh}, so ordinary
+ * test and check runs don't pay for it.
+ */
+public class JvmBenchmarks {
+
+    @Test
+    public void runJmhBenchmarks() throws Exception {
+        assumeTrue("JMH runs only with -Pjmh", Boolean.getBoolean("pantrypal.jmh"));
+        File output = new File("build/outputs/jmh/results.json");
+        output.getParentFile().mkdirs();
+
+        Options options = new OptionsBuilder()
+                .include(PantryJmhBenchmarks.class.getSimpleName())
+                .forks(1)
+                .warmupIterations(3)
+                .warmupTime(TimeValue.seconds(1))
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(2))
+                .resultFormat(ResultFormatType.JSON)
+                .result(output.getPath())
+                .build();
+
+        assertFalse(new Runner(options).run().isEmpty());
+    }
+}
@@ -0,0 +1,93 @@
+package com.pantrypal.benchmark;
+
+import com.pantrypal.model.Item;
+import com.pantrypal.model.ItemRowText;
+import com.pantrypal.model.PantryRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// JVM-only hot paths: nothing here touches the Android framework
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PantryJmhBenchmarks {
+
+    // Baseline for expirySort_10k: the original MainActivity comparator, which parsed both
+    // expiry strings against today's date on every comparison
+    private static final Comparator<Item> PARSING_ORDER = (i1, i2) ->
+            Long.compare(parsedDaysUntilExpiry(i1), parsedDaysUntilExpiry(i2));
+
+    private List<Item> items;
+    private Item sample;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        LocalDate today = LocalDate.now();
+        items = new ArrayList<>(10_000);
+        for (int i = 0; i < 10_000; i++) {
+            Item item = new Item("user", "Item " + i, 1 + random.nextInt(10), i % 2 == 0 ? "pcs" : "kg",
+                    today, today.plusDays(random.nextInt(120) - 30));
+            item.setDocumentId("doc-" + i);
+            // Items used to hold the ISO strings; only the parsing is measured
+            item.getExpiryDate();
+            items.add(item);
+        }
+        Collections.shuffle(items, random);
+        sample = items.get(0);
+    }
+
+    @Benchmark
+    public long parseExpiryDate() {
+        Item item = new Item();
+        item.setExpiryDate("2026-01-17");
+        return item.getExpiryEpochDay();
+    }
+
+    @Benchmark
+    public long readExpiryEpochDay() {
+        Item item = new Item();
+        item.setExpiryEpochDay(20_470);
+        return item.getExpiryEpochDay();
+    }
+
+    @Benchmark
+    public List<Item> expirySort_10k() {
+        List<Item> copy = new ArrayList<>(items);
+        Collections.sort(copy, PantryRepository.LIST_ORDER);
+        return copy;
+    }
+
+    @Benchmark
+    public List<Item> expirySortParsing_10k() {
+        List<Item> copy = new ArrayList<>(items);
+        Collections.sort(copy, PARSING_ORDER);
+        return copy;
+    }
+
+    @Benchmark
+    public String rowText() {
+        return ItemRowText.quantityText(sample) + ItemRowText.expiryText(sample.getDaysUntilExpiry());
+    }
+
+    private static long parsedDaysUntilExpiry(Item item) {
+        String expiry = item.getExpiryDate();
+        if (expiry == null) return 0;
+        return ChronoUnit.DAYS.between(LocalDate.now(), LocalDate.parse(expiry));
+    }
+}
@@ -1,5 +1,9 @@
 // Top-level build file where you can add configuration options common to all sub-projects/modules.
 plugins {
     alias(libs.plugins.android.application) apply false
+    alias(libs.plugins.android.library) apply false
+    alias(libs.plugins.android.test) apply false
+    alias(libs.plugins.androidx.benchmark) apply false
+    alias(libs.plugins.androidx.baselineprofile) apply false
     id("com.google.gms.google-services") version "4.4.4" apply false
 }
\ No newline at end of file
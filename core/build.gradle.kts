@@ -0,0 +1,38 @@
+plugins {
+    alias(libs.plugins.android.library)
+}
+
+android {
+    namespace = "com.pantrypal.core"
+    compileSdk {
+        version = release(36)
+    }
+
+    defaultConfig {
+        minSdk = 24
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    buildTypes {
+        release {
+            isMinifyEnabled = false
+        }
+    }
+    compileOptions {
+        isCoreLibraryDesugaringEnabled = true
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+}
+
+dependencies {
+    api(platform(libs.firebase.bom))
+    api(libs.firebase.firestore)
+    api(libs.lifecycle.livedata)
+    testImplementation(libs.junit)
+    // android.util.JsonReader has no JVM implementation, so the JSON format is tested on a device
+    androidTestImplementation(libs.ext.junit)
+    androidTestImplementation(libs.test.runner)
+    coreLibraryDesugaring(libs.desugar.jdk.libs)
+}
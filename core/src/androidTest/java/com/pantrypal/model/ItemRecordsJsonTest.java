@@ -0,0 +1,84 @@
+package com.pantrypal.model;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+// The JSON half of ItemRecordsTest; android.util.JsonReader only exists on a device
+@RunWith(AndroidJUnit4.class)
+public class ItemRecordsJsonTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    private static List<ItemRecords.Row> readJson(String json) throws IOException {
+        List<ItemRecords.Row> rows = new ArrayList<>();
+        try (ItemRecords.Source source = ItemRecords.source(ItemRecords.Format.JSON, new StringReader(json))) {
+            ItemRecords.Row row;
+            while ((row = source.next()) != null) rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    public void jsonRoundTripKeepsEveryField() throws IOException {
+        Item milk = new Item("user", "Milk, \"full\" fat", 1.5, "L", TODAY, TODAY.plusDays(5));
+        Item eggs = new Item("user", "Eggs", 12, "pcs", TODAY, null);
+
+        StringWriter out = new StringWriter();
+        try (ItemRecords.Sink sink = ItemRecords.sink(ItemRecords.Format.JSON, out)) {
+            sink.write(milk);
+            sink.write(eggs);
+        }
+
+        List<ItemRecords.Row> rows = readJson(out.toString());
+        assertEquals(2, rows.size());
+        for (ItemRecords.Row row : rows) assertNull(row.validate());
+
+        Item readMilk = rows.get(0).toItem("other", TODAY);
+        assertEquals(milk.getName(), readMilk.getName());
+        assertEquals(1.5, readMilk.getQuantity(), 0);
+        assertEquals("L", readMilk.getUnit());
+        assertEquals(milk.getPurchaseEpochDay(), readMilk.getPurchaseEpochDay());
+        assertEquals(milk.getExpiryEpochDay(), readMilk.getExpiryEpochDay());
+
+        Item readEggs = rows.get(1).toItem("other", TODAY);
+        assertEquals(12, readEggs.getQuantity(), 0);
+        assertEquals(Item.NO_EXPIRY, readEggs.getExpiryEpochDay());
+        assertEquals(2, rows.get(1).getLine());
+    }
+
+    @Test
+    public void unknownKeysAreSkippedWhateverTheirType() throws IOException {
+        List<ItemRecords.Row> rows = readJson("[{\"id\": 7, \"name\": \"Rice\", \"tags\": [\"dry\", {\"a\": 1}],"
+                + " \"favourite\": true, \"notes\": null, \"quantity\": 2, \"meta\": {\"x\": false},"
+                + " \"unit\": \"kg\"}, {\"name\": \"Oil\", \"quantity\": \"500\", \"unit\": \"ml\"}]");
+
+        assertEquals(2, rows.size());
+        assertNull(rows.get(0).validate());
+        Item rice = rows.get(0).toItem("user", TODAY);
+        assertEquals("Rice", rice.getName());
+        assertEquals(2, rice.getQuantity(), 0);
+        assertEquals(ItemUnit.KG, rice.getUnitCode());
+        assertEquals("Oil", rows.get(1).toItem("user", TODAY).getName());
+    }
+
+    @Test
+    public void booleanInAColumnIsARowErrorNotAFailedImport() throws IOException {
+        List<ItemRecords.Row> rows = readJson("[{\"name\": \"Tea\", \"quantity\": true, \"unit\": \"pcs\"},"
+                + " {\"name\": \"Jam\", \"quantity\": 1, \"unit\": \"pcs\"}]");
+
+        assertEquals(2, rows.size());
+        assertEquals("Invalid number", rows.get(0).validate());
+        assertNull(rows.get(1).validate());
+    }
+}
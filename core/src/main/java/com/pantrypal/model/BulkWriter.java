@@ -0,0 +1,119 @@
+package com.pantrypal.model;
+
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Splits a list of writes into WriteBatches under Firestore's per-batch limit and commits them
+// with a bounded number in flight. All callbacks arrive on the main thread.
+class BulkWriter {
+
+    static final int MAX_BATCH_SIZE = 500;
+    static final int MAX_BATCHES_IN_FLIGHT = 4;
+
+    enum OpType { SET, MERGE, UPDATE, DELETE }
+
+    static class Op {
+        final OpType type;
+        final DocumentReference ref;
+        final Object data;
+
+        private Op(OpType type, DocumentReference ref, Object data) {
+            this.type = type;
+            this.ref = ref;
+            this.data = data;
+        }
+
+        static Op set(DocumentReference ref, Object data) { return new Op(OpType.SET, ref, data); }
+        static Op merge(DocumentReference ref, Map<String, Object> fields) { return new Op(OpType.MERGE, ref, fields); }
+        static Op update(DocumentReference ref, Map<String, Object> fields) { return new Op(OpType.UPDATE, ref, fields); }
+        static Op delete(DocumentReference ref) { return new Op(OpType.DELETE, ref, null); }
+    }
+
+    private final FirebaseFirestore db;
+    private final List<List<Op>> chunks = new ArrayList<>();
+    private final FirestoreManager.BulkWriteCallback callback;
+    private final int totalOps;
+
+    private int nextChunk;
+    private int inFlight;
+    private int completedOps;
+    private int failedOps;
+    private Exception lastError;
+
+    BulkWriter(FirebaseFirestore db, List<Op> ops, FirestoreManager.BulkWriteCallback callback) {
+        this.db = db;
+        this.callback = callback;
+        this.totalOps = ops.size();
+        for (int start = 0; start < ops.size(); start += MAX_BATCH_SIZE) {
+            chunks.add(ops.subList(start, Math.min(start + MAX_BATCH_SIZE, ops.size())));
+        }
+    }
+
+    void start() {
+        if (chunks.isEmpty()) {
+            if (callback != null) callback.onSuccess();
+            return;
+        }
+        while (inFlight < MAX_BATCHES_IN_FLIGHT && nextChunk < chunks.size()) {
+            commit(chunks.get(nextChunk++));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void commit(List<Op> chunk) {
+        WriteBatch batch = db.batch();
+        for (Op op : chunk) {
+            switch (op.type) {
+                case SET:
+                    batch.set(op.ref, op.data);
+                    break;
+                case MERGE:
+                    batch.set(op.ref, op.data, SetOptions.merge());
+                    break;
+                case UPDATE:
+                    batch.update(op.ref, (Map<String, Object>) op.data);
+                    break;
+                case DELETE:
+                    batch.delete(op.ref);
+                    break;
+            }
+        }
+
+        inFlight++;
+        batch.commit().addOnCompleteListener(task -> {
+            inFlight--;
+            completedOps += chunk.size();
+
+            if (!task.isSuccessful()) {
+                // A batch is atomic, so every write in it failed together
+                failedOps += chunk.size();
+                lastError = task.getException();
+                if (callback != null) {
+                    for (Op op : chunk) callback.onItemFailure(op.ref.getId(), lastError);
+                }
+            }
+            if (callback != null) callback.onProgress(completedOps, totalOps);
+
+            if (nextChunk < chunks.size()) {
+                commit(chunks.get(nextChunk++));
+            } else if (inFlight == 0) {
+                finish();
+            }
+        });
+    }
+
+    private void finish() {
+        if (callback == null) return;
+        if (failedOps == 0) {
+            callback.onSuccess();
+        } else {
+            callback.onFailure(new Exception(failedOps + " of " + totalOps + " writes failed", lastError));
+        }
+    }
+}
@@ -0,0 +1,771 @@
+package com.pantrypal.model;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.Timestamp;
+import com.google.firebase.firestore.AggregateField;
+import com.google.firebase.firestore.AggregateQuerySnapshot;
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.MetadataChanges;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QueryDocumentSnapshot;
+import com.google.firebase.firestore.QuerySnapshot;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.TreeMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+public class FirestoreManager {
+
+    private final FirebaseFirestore db;
+    // Pre-household layout: every user's items in one collection, filtered by userId
+    private final String COLLECTION_NAME = "pantry";
+    static final String HOUSEHOLDS_COLLECTION = "households";
+    static final String ITEMS_COLLECTION = "items";
+    static final String FIELD_OWNER_ID = "ownerId";
+    static final String FIELD_MEMBERS = "members";
+    static final String INVITES_COLLECTION = "invites";
+    // Set on the household by a join; the security rules check it names a live invite
+    static final String FIELD_JOIN_CODE = "joinCode";
+    static final String FIELD_CREATED_BY = "createdBy";
+    static final String FIELD_EXPIRES_AT = "expiresAt";
+    private static final long INVITE_TTL_MS = 24 * 60 * 60 * 1000L;
+    // No 0/O or 1/I, so a code read out loud survives; 10 characters is 50 bits
+    private static final char[] JOIN_CODE_ALPHABET = "23456789ABCDEFGHJKLMNPQRSTUVWXYZ".toCharArray();
+    private static final int JOIN_CODE_LENGTH = 10;
+    private static final SecureRandom JOIN_CODE_RANDOM = new SecureRandom();
+    // Items live under households/{householdId}/items once set; null means the legacy collection
+    private volatile String householdId;
+    private ListenerRegistration listenerRegistration;
+    private ItemPager activePager;
+    private volatile int listenerGeneration;
+    private String listeningUserId;
+    private final ItemNameIndex nameIndex = new ItemNameIndex();
+    private final PantryMetrics metrics = PantryMetrics.get();
+
+    static final Executor SNAPSHOT_EXECUTOR = Executors.newSingleThreadExecutor();
+    static final Handler MAIN_HANDLER = new Handler(Looper.getMainLooper());
+
+    public FirestoreManager() {
+        db = FirebaseFirestore.getInstance();
+    }
+
+    // Interfaces
+
+    public interface FirestoreCallback {
+        void onCallback(List<Item> list);
+    }
+
+    public interface ItemChangeCallback {
+        // fullSnapshot is true for the first delivery of a listener: changes then hold every
+        // document as ADDED and should replace whatever the caller had before.
+        void onChanges(List<ItemChange> changes, boolean fullSnapshot);
+    }
+
+    public interface ActionCallback {
+        void onSuccess();
+        void onFailure(Exception e);
+    }
+
+    public interface PurgeCallback extends ActionCallback {
+        void onProgress(int deleted, int total);
+    }
+
+    public interface HouseholdCallback {
+        void onHousehold(String householdId);
+        void onFailure(Exception e);
+    }
+
+    public interface InviteCallback {
+        void onInvite(String joinCode);
+        void onFailure(Exception e);
+    }
+
+    public interface SummaryCallback {
+        void onSummary(PantrySummary summary);
+        void onFailure(Exception e);
+    }
+
+    public interface TransferCallback extends ActionCallback {
+        // processed: items imported or exported so far; skipped: rows that failed validation
+        void onProgress(int processed, int skipped);
+        void onRowError(int line, String message);
+    }
+
+    public interface BulkWriteCallback extends ActionCallback {
+        void onProgress(int completed, int total);
+        void onItemFailure(String documentId, Exception e);
+    }
+
+    // Item Location
+
+    private CollectionReference items() {
+        String household = householdId;
+        return household != null ? householdItems(household) : db.collection(COLLECTION_NAME);
+    }
+
+    private CollectionReference householdItems(String household) {
+        return db.collection(HOUSEHOLDS_COLLECTION).document(household).collection(ITEMS_COLLECTION);
+    }
+
+    // Everything the user's pantry shows: the whole household, or their legacy documents
+    Query itemsOf(String userId) {
+        String household = householdId;
+        return household != null
+                ? householdItems(household)
+                : db.collection(COLLECTION_NAME).whereEqualTo(ItemCodec.FIELD_USER_ID, userId);
+    }
+
+    // Add Item
+
+    public void addItem(Item item, ActionCallback callback) {
+        ActionCallback timed = metrics.timed(PantryMetrics.ADD_ITEM, callback);
+
+        // Same as add(), but the ID is known up front so the listener echo can be timed
+        DocumentReference documentReference = items().document();
+        metrics.markWrite(documentReference.getId());
+        documentReference
+                .set(ItemCodec.toMap(item))
+                .addOnSuccessListener(aVoid -> {
+                    Log.d("Firestore", "Item added with ID: " + documentReference.getId());
+                    timed.onSuccess();
+                })
+                .addOnFailureListener(e -> {
+                    Log.w("Firestore", "Error adding item", e);
+                    timed.onFailure(e);
+                });
+    }
+
+    // Upsert Item
+
+    // Adds the item as a lot with a deterministic ID (see ItemLots): adding the same lot again
+    // increments its quantity atomically instead of creating a duplicate document, and the lot
+    // can be read back by ID without a query.
+    public void upsertItem(Item item, ActionCallback callback) {
+        ActionCallback timed = metrics.timed(PantryMetrics.UPSERT_ITEM, callback);
+
+        DocumentReference documentReference = lotDocument(item);
+        metrics.markWrite(documentReference.getId());
+        documentReference
+                .set(lotFields(item), SetOptions.merge())
+                .addOnSuccessListener(aVoid -> {
+                    Log.d("Firestore", "Item upserted with ID: " + documentReference.getId());
+                    timed.onSuccess();
+                })
+                .addOnFailureListener(e -> {
+                    Log.w("Firestore", "Error upserting item", e);
+                    timed.onFailure(e);
+                });
+    }
+
+    // Merged into the lot document: the quantity is added to whatever the lot already holds
+    private static Map<String, Object> lotFields(Item item) {
+        Map<String, Object> fields = ItemCodec.toMap(item);
+        fields.put(ItemCodec.FIELD_QUANTITY, FieldValue.increment(item.getQuantity()));
+        return fields;
+    }
+
+    // Where upsertItem() puts this lot, for direct reads
+    public DocumentReference lotDocument(Item item) {
+        String household = householdId;
+        CollectionReference collection = household != null ? householdItems(household) : db.collection(COLLECTION_NAME);
+        return collection.document(ItemLots.documentId(household != null ? household : item.getUserId(), item));
+    }
+
+    // Get Items
+
+    public void startListeningForItems(String userId, FirestoreCallback callback) {
+        if (userId == null || userId.isEmpty()) {
+            Log.w("Firestore", "No User ID provided. Cannot load items.");
+            return;
+        }
+
+        stopListening();
+        listeningUserId = userId;
+
+        int generation = listenerGeneration;
+        boolean[] seenServerSnapshot = {false};
+        boolean[] delivered = {false};
+
+        // Snapshots are decoded on SNAPSHOT_EXECUTOR; only the finished list reaches the main thread
+        listenerRegistration = itemsOf(userId)
+                .addSnapshotListener(SNAPSHOT_EXECUTOR, (value, error) -> {
+                    if (error != null) {
+                        Log.w("Firestore", "Listen failed.", error);
+                        return;
+                    }
+
+                    // An empty cache-only snapshot before the server has answered says nothing
+                    // about the pantry, so don't let it wipe the local mirror.
+                    if (value != null && !value.getMetadata().isFromCache()) {
+                        seenServerSnapshot[0] = true;
+                    } else if (value != null && value.isEmpty() && !seenServerSnapshot[0]) {
+                        return;
+                    }
+
+                    long decodeStart = PantryMetrics.nowMicros();
+                    List<Item> items = new ArrayList<>();
+                    if (value != null) {
+                        for (QueryDocumentSnapshot document : value) {
+                            Item item = ItemCodec.fromDocument(document);
+                            if (item != null) items.add(item);
+                        }
+                        if (delivered[0]) {
+                            for (DocumentChange change : value.getDocumentChanges()) {
+                                metrics.onListenerChange(change.getDocument().getId());
+                            }
+                        }
+                        delivered[0] = true;
+                        recordSnapshot(value.size(), value.getDocumentChanges().size(), decodeStart);
+                    }
+                    if (generation == listenerGeneration) nameIndex.replaceAll(items);
+                    postIfCurrent(generation, () -> callback.onCallback(items));
+                });
+    }
+
+    // Get Item Changes
+
+    public void startListeningForItemChanges(String userId, ItemChangeCallback callback) {
+        if (userId == null || userId.isEmpty()) {
+            Log.w("Firestore", "No User ID provided. Cannot load items.");
+            return;
+        }
+
+        stopListening();
+        listeningUserId = userId;
+
+        int generation = listenerGeneration;
+        boolean[] seenServerSnapshot = {false};
+        boolean[] delivered = {false};
+        PendingWriteFilter pendingWrites = new PendingWriteFilter();
+
+        // Metadata changes are included so rows learn when their pending write is acknowledged
+        listenerRegistration = itemsOf(userId)
+                .addSnapshotListener(SNAPSHOT_EXECUTOR, MetadataChanges.INCLUDE, (value, error) -> {
+                    if (error != null) {
+                        Log.w("Firestore", "Listen failed.", error);
+                        return;
+                    }
+                    if (value == null) return;
+
+                    if (!value.getMetadata().isFromCache()) {
+                        seenServerSnapshot[0] = true;
+                    } else if (value.isEmpty() && !seenServerSnapshot[0]) {
+                        return;
+                    }
+
+                    boolean fullSnapshot = !delivered[0];
+                    delivered[0] = true;
+
+                    long decodeStart = PantryMetrics.nowMicros();
+                    List<ItemChange> changes = new ArrayList<>();
+                    for (DocumentChange change : pendingWrites.changes(value)) {
+                        if (!fullSnapshot) metrics.onListenerChange(change.getDocument().getId());
+                        Item item = ItemCodec.fromDocument(change.getDocument());
+                        if (item != null) changes.add(new ItemChange(toChangeType(change.getType()), item));
+                    }
+                    recordSnapshot(value.size(), changes.size(), decodeStart);
+                    if (generation == listenerGeneration) nameIndex.apply(changes, fullSnapshot);
+                    if (fullSnapshot || !changes.isEmpty()) {
+                        postIfCurrent(generation, () -> callback.onChanges(changes, fullSnapshot));
+                    }
+                });
+    }
+
+    // SNAPSHOT_CHANGES counts the changes a listener hands on, i.e. after PendingWriteFilter;
+    // ItemPager records the same. Without metadata changes every document change is a data change.
+    private void recordSnapshot(int documents, int changes, long decodeStartMicros) {
+        metrics.record(PantryMetrics.SNAPSHOT_DECODE, PantryMetrics.nowMicros() - decodeStartMicros);
+        metrics.record(PantryMetrics.SNAPSHOT_SIZE, documents);
+        metrics.record(PantryMetrics.SNAPSHOT_CHANGES, changes);
+    }
+
+    // Drops results from a listener that was stopped while its snapshot was being decoded
+    private void postIfCurrent(int generation, Runnable delivery) {
+        MAIN_HANDLER.post(() -> {
+            if (generation == listenerGeneration) delivery.run();
+        });
+    }
+
+    private static ItemChange.Type toChangeType(DocumentChange.Type type) {
+        switch (type) {
+            case ADDED:
+                return ItemChange.Type.ADDED;
+            case REMOVED:
+                return ItemChange.Type.REMOVED;
+            default:
+                return ItemChange.Type.MODIFIED;
+        }
+    }
+
+    // Get Items Page By Page
+
+    // Orders by expiryDay, so documents without an expiry date are not returned. Only use it
+    // with a household set: household items are all v2 and need no composite index.
+    public ItemPager startPagingItems(String userId, int pageSize, ItemChangeCallback callback) {
+        stopListening();
+
+        activePager = new ItemPager(itemsOf(userId).orderBy(ItemCodec.FIELD_EXPIRY_DAY), pageSize, callback);
+        activePager.loadNextPage();
+        return activePager;
+    }
+
+    // Summary
+
+    // Counts from server-side aggregation queries: a few bytes per query instead of the whole
+    // pantry. On the legacy layout the filtered counts need composite indexes on
+    // (userId, expiryDay) and (userId, unitCode); household items need none.
+    public void loadSummary(String userId, long todayEpochDay, SummaryCallback callback) {
+        Query all = itemsOf(userId);
+        String expiry = ItemCodec.FIELD_EXPIRY_DAY;
+
+        List<Task<AggregateQuerySnapshot>> counts = new ArrayList<>();
+        counts.add(all.count().get(AggregateSource.SERVER));
+        counts.add(all.whereLessThan(expiry, todayEpochDay).count().get(AggregateSource.SERVER));
+        counts.add(all.whereEqualTo(expiry, todayEpochDay).count().get(AggregateSource.SERVER));
+        counts.add(all.whereGreaterThan(expiry, todayEpochDay)
+                .whereLessThanOrEqualTo(expiry, todayEpochDay + PantrySummary.WEEK_DAYS)
+                .count().get(AggregateSource.SERVER));
+
+        AggregateField.SumAggregateField quantity = AggregateField.sum("quantity");
+        List<Task<AggregateQuerySnapshot>> sums = new ArrayList<>();
+        for (int code = ItemUnit.OTHER; code <= ItemUnit.ML; code++) {
+            sums.add(all.whereEqualTo(ItemCodec.FIELD_UNIT_CODE, code)
+                    .aggregate(quantity).get(AggregateSource.SERVER));
+        }
+
+        List<Task<AggregateQuerySnapshot>> tasks = new ArrayList<>(counts);
+        tasks.addAll(sums);
+        Tasks.whenAllComplete(tasks).addOnCompleteListener(done -> {
+            for (Task<AggregateQuerySnapshot> task : tasks) {
+                if (!task.isSuccessful()) {
+                    Log.w("Firestore", "Error loading summary", task.getException());
+                    callback.onFailure(task.getException());
+                    return;
+                }
+            }
+
+            Map<Integer, Double> quantityByUnit = new TreeMap<>();
+            for (int code = 0; code < sums.size(); code++) {
+                Double total = sums.get(code).getResult().getDouble(quantity);
+                if (total != null) quantityByUnit.put(code, total);
+            }
+            callback.onSummary(new PantrySummary(
+                    counts.get(0).getResult().getCount(),
+                    counts.get(1).getResult().getCount(),
+                    counts.get(2).getResult().getCount(),
+                    counts.get(3).getResult().getCount(),
+                    quantityByUnit));
+        });
+    }
+
+    // Households
+
+    // Points every item read and write at households/{householdId}/items (null: the legacy
+    // collection). Running listeners keep their old query; restart them after switching.
+    public void useHousehold(String householdId) {
+        this.householdId = householdId;
+    }
+
+    public String getHouseholdId() {
+        return householdId;
+    }
+
+    // A user's own household has their user ID as its ID
+    public void createHousehold(String userId, ActionCallback callback) {
+        Map<String, Object> household = new HashMap<>();
+        household.put(FIELD_OWNER_ID, userId);
+        household.put(FIELD_MEMBERS, FieldValue.arrayUnion(userId));
+        db.collection(HOUSEHOLDS_COLLECTION).document(userId)
+                .set(household, SetOptions.merge())
+                .addOnSuccessListener(aVoid -> {
+                    if (callback != null) callback.onSuccess();
+                })
+                .addOnFailureListener(e -> {
+                    if (callback != null) callback.onFailure(e);
+                });
+    }
+
+    // A single-use code another user can join the household with, valid for a day. Only members
+    // may create invites.
+    public void createHouseholdInvite(String householdId, String userId, InviteCallback callback) {
+        char[] code = new char[JOIN_CODE_LENGTH];
+        for (int i = 0; i < code.length; i++) {
+            code[i] = JOIN_CODE_ALPHABET[JOIN_CODE_RANDOM.nextInt(JOIN_CODE_ALPHABET.length)];
+        }
+        String joinCode = new String(code);
+
+        Map<String, Object> invite = new HashMap<>();
+        invite.put(FIELD_CREATED_BY, userId);
+        invite.put(FIELD_EXPIRES_AT, new Timestamp(new Date(System.currentTimeMillis() + INVITE_TTL_MS)));
+        invitesOf(householdId).document(joinCode)
+                .set(invite)
+                .addOnSuccessListener(aVoid -> callback.onInvite(joinCode))
+                .addOnFailureListener(e -> {
+                    Log.w("Firestore", "Error creating invite", e);
+                    callback.onFailure(e);
+                });
+    }
+
+    // Adds the user to the household and uses up the invite in one batch. The security rules only
+    // let a non-member add themselves while the invite named by joinCode exists and hasn't expired.
+    public void joinHousehold(String householdId, String joinCode, String userId, ActionCallback callback) {
+        if (joinCode == null || joinCode.isEmpty()) {
+            if (callback != null) callback.onFailure(new Exception("Join code required"));
+            return;
+        }
+
+        Map<String, Object> join = new HashMap<>();
+        join.put(FIELD_MEMBERS, FieldValue.arrayUnion(userId));
+        join.put(FIELD_JOIN_CODE, joinCode);
+        WriteBatch batch = db.batch();
+        batch.update(db.collection(HOUSEHOLDS_COLLECTION).document(householdId), join);
+        batch.delete(invitesOf(householdId).document(joinCode));
+        batch.commit()
+                .addOnSuccessListener(aVoid -> {
+                    if (callback != null) callback.onSuccess();
+                })
+                .addOnFailureListener(e -> {
+                    Log.w("Firestore", "Error joining household", e);
+                    if (callback != null) callback.onFailure(e);
+                });
+    }
+
+    private CollectionReference invitesOf(String householdId) {
+        return db.collection(HOUSEHOLDS_COLLECTION).document(householdId).collection(INVITES_COLLECTION);
+    }
+
+    public void leaveHousehold(String householdId, String userId, ActionCallback callback) {
+        updateMembers(householdId, FieldValue.arrayRemove(userId), callback);
+    }
+
+    private void updateMembers(String householdId, FieldValue change, ActionCallback callback) {
+        db.collection(HOUSEHOLDS_COLLECTION).document(householdId)
+                .update(FIELD_MEMBERS, change)
+                .addOnSuccessListener(aVoid -> {
+                    if (callback != null) callback.onSuccess();
+                })
+                .addOnFailureListener(e -> {
+                    if (callback != null) callback.onFailure(e);
+                });
+    }
+
+    // The household the user has joined, falling back to their own
+    public void findHousehold(String userId, HouseholdCallback callback) {
+        db.collection(HOUSEHOLDS_COLLECTION)
+                .whereArrayContains(FIELD_MEMBERS, userId)
+                .get()
+                .addOnSuccessListener(querySnapshot -> {
+                    String found = userId;
+                    for (DocumentSnapshot document : querySnapshot.getDocuments()) {
+                        if (!document.getId().equals(userId)) found = document.getId();
+                    }
+                    callback.onHousehold(found);
+                })
+                .addOnFailureListener(e -> {
+                    Log.w("Firestore", "Error finding household", e);
+                    callback.onFailure(e);
+                });
+    }
+
+    // Household Migration
+
+    // Moves the user's legacy documents into their own household; see HouseholdMigration
+    public void startHouseholdMigration(Context context, String userId, ActionCallback callback) {
+        Query legacy = db.collection(COLLECTION_NAME).whereEqualTo(ItemCodec.FIELD_USER_ID, userId);
+        HouseholdMigration.startIfNeeded(context, this, db, legacy, householdItems(userId), userId, callback);
+    }
+
+    // onStopped runs once nothing more will be moved for the user in this process
+    public void cancelHouseholdMigration(String userId, Runnable onStopped) {
+        HouseholdMigration.cancel(userId, onStopped);
+    }
+
+    public boolean isHouseholdMigrated(Context context, String userId) {
+        return HouseholdMigration.isComplete(context, userId);
+    }
+
+    // Stop Listening
+
+    public void stopListening() {
+        listenerGeneration++;
+        listeningUserId = null;
+        nameIndex.invalidate();
+        if (listenerRegistration != null) {
+            listenerRegistration.remove();
+            listenerRegistration = null;
+        }
+        if (activePager != null) {
+            activePager.stop();
+            activePager = null;
+        }
+    }
+
+    // Delete Item
+
+    public void deleteItem(String documentId, ActionCallback callback) {
+        deleteDocument(documentId, metrics.timed(PantryMetrics.DELETE_ITEM, callback));
+    }
+
+    private void deleteDocument(String documentId, ActionCallback callback) {
+        metrics.markWrite(documentId);
+        items().document(documentId)
+                .delete()
+                .addOnSuccessListener(aVoid -> {
+                    if (callback != null) callback.onSuccess();
+                })
+                .addOnFailureListener(e -> {
+                    if (callback != null) callback.onFailure(e);
+                });
+    }
+
+    // Update Item
+
+    public void updateItemQuantity(String documentId, double newQuantity, ActionCallback callback) {
+        ActionCallback timed = metrics.timed(PantryMetrics.UPDATE_QUANTITY, callback);
+        metrics.markWrite(documentId);
+        items().document(documentId)
+                .update("quantity", newQuantity)
+                .addOnSuccessListener(aVoid -> {
+                    timed.onSuccess();
+                })
+                .addOnFailureListener(e -> {
+                    timed.onFailure(e);
+                });
+    }
+
+    // Increment Item Quantity
+
+    // Relative change applied atomically on the server, so concurrent adjustments don't race
+    public void incrementItemQuantity(String documentId, double delta, ActionCallback callback) {
+        ActionCallback timed = metrics.timed(PantryMetrics.INCREMENT_QUANTITY, callback);
+        metrics.markWrite(documentId);
+        items().document(documentId)
+                .update("quantity", FieldValue.increment(delta))
+                .addOnSuccessListener(aVoid -> {
+                    timed.onSuccess();
+                })
+                .addOnFailureListener(e -> {
+                    timed.onFailure(e);
+                });
+    }
+
+    // Bulk Write
+
+    // Adds, quantity updates (document ID -> new quantity) and deletes are committed in
+    // batches of up to 500 writes with a few batches in flight at once. Adds are upserted as
+    // lots like upsertItem(), so adding the same lot again adds to its quantity. onSuccess/
+    // onFailure fire once everything has settled.
+    public void bulkWrite(List<Item> adds, Map<String, Double> quantityUpdates, List<String> deleteIds,
+                          BulkWriteCallback callback) {
+        List<BulkWriter.Op> ops = new ArrayList<>();
+
+        if (adds != null) {
+            for (Item item : adds) {
+                ops.add(BulkWriter.Op.merge(lotDocument(item), lotFields(item)));
+            }
+        }
+        if (quantityUpdates != null) {
+            for (Map.Entry<String, Double> update : quantityUpdates.entrySet()) {
+                ops.add(BulkWriter.Op.update(items().document(update.getKey()),
+                        Collections.singletonMap("quantity", update.getValue())));
+            }
+        }
+        if (deleteIds != null) {
+            for (String documentId : deleteIds) {
+                ops.add(BulkWriter.Op.delete(items().document(documentId)));
+            }
+        }
+
+        new BulkWriter(db, ops, callback).start();
+    }
+
+    // Purge User
+
+    // Deletes all of a user's pantry documents: any left in the legacy collection, then their
+    // own household (items and household document), then their membership of a joined one. A
+    // running household migration is stopped first so it can't move items back in. Must finish
+    // before the auth account is deleted, since the security rules need the user signed in.
+    // Safe to call again after a failure.
+    public void purgeUserItems(String userId, PurgeCallback callback) {
+        cancelHouseholdMigration(userId, () -> purgeLegacyItems(userId, callback));
+    }
+
+    private void purgeLegacyItems(String userId, PurgeCallback callback) {
+        Query legacy = db.collection(COLLECTION_NAME).whereEqualTo(ItemCodec.FIELD_USER_ID, userId);
+        new PantryPurger(db, legacy, new PurgeCallback() {
+            @Override
+            public void onProgress(int deleted, int total) {
+                callback.onProgress(deleted, total);
+            }
+
+            @Override
+            public void onSuccess() {
+                purgeHousehold(userId, callback);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+        }).start();
+    }
+
+    private void purgeHousehold(String userId, PurgeCallback callback) {
+        // Read now: the purge takes a while and the household could be switched meanwhile
+        String joined = householdId;
+        new PantryPurger(db, householdItems(userId), new PurgeCallback() {
+            @Override
+            public void onProgress(int deleted, int total) {
+                callback.onProgress(deleted, total);
+            }
+
+            @Override
+            public void onSuccess() {
+                db.collection(HOUSEHOLDS_COLLECTION).document(userId).delete()
+                        .addOnSuccessListener(aVoid -> {
+                            if (joined != null && !joined.equals(userId)) {
+                                leaveHousehold(joined, userId, callback);
+                            } else {
+                                callback.onSuccess();
+                            }
+                        })
+                        .addOnFailureListener(callback::onFailure);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+        }).start();
+    }
+
+    // Delete Item By Name
+
+    // Deletes every item with that name, matched trimmed and case-insensitively either way. While
+    // a full listener is running for the user the documents are resolved from the name index and
+    // this is one write; otherwise the stored nameKey is queried first. Documents from before
+    // nameKey was written are found by their exact name.
+    public void deleteItemByName(String userId, String itemName, ActionCallback callback) {
+        ActionCallback timed = metrics.timed(PantryMetrics.DELETE_BY_NAME, callback);
+        if (hasLiveNameIndex(userId)) {
+            List<String> documentIds = new ArrayList<>();
+            for (Item item : nameIndex.find(itemName)) documentIds.add(item.getDocumentId());
+            deleteDocuments(documentIds, timed);
+            return;
+        }
+
+        Task<QuerySnapshot> byKey = itemsOf(userId)
+                .whereEqualTo(ItemCodec.FIELD_NAME_KEY, ItemNameIndex.normalize(itemName)).get();
+        Task<QuerySnapshot> byName = itemsOf(userId).whereEqualTo(ItemCodec.FIELD_NAME, itemName).get();
+        Tasks.whenAllComplete(byKey, byName).addOnCompleteListener(done -> {
+            Set<String> documentIds = new LinkedHashSet<>();
+            for (Task<QuerySnapshot> task : Arrays.asList(byKey, byName)) {
+                if (!task.isSuccessful()) {
+                    timed.onFailure(task.getException());
+                    return;
+                }
+                for (DocumentSnapshot document : task.getResult().getDocuments()) {
+                    documentIds.add(document.getId());
+                }
+            }
+            deleteDocuments(new ArrayList<>(documentIds), timed);
+        });
+    }
+
+    // Larger sets go through BulkWriter, which keeps each batch under Firestore's limit
+    private void deleteDocuments(List<String> documentIds, ActionCallback callback) {
+        if (documentIds.isEmpty()) {
+            if (callback != null) callback.onFailure(new Exception("Item not found"));
+            return;
+        }
+        if (documentIds.size() == 1) {
+            deleteDocument(documentIds.get(0), callback);
+            return;
+        }
+
+        List<BulkWriter.Op> ops = new ArrayList<>(documentIds.size());
+        for (String documentId : documentIds) {
+            metrics.markWrite(documentId);
+            ops.add(BulkWriter.Op.delete(items().document(documentId)));
+        }
+        new BulkWriter(db, ops, new BulkWriteCallback() {
+            @Override
+            public void onProgress(int completed, int total) { }
+
+            @Override
+            public void onItemFailure(String documentId, Exception e) { }
+
+            @Override
+            public void onSuccess() {
+                if (callback != null) callback.onSuccess();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (callback != null) callback.onFailure(e);
+            }
+        }).start();
+    }
+
+    // Decrement Item By Name
+
+    // Takes the amount off the soonest-expiring lot with that name, deleting it when it runs out.
+    // Needs a live listener for the user, since the index is what makes this a single write.
+    public void decrementItemQuantityByName(String userId, String itemName, double amount, ActionCallback callback) {
+        ActionCallback timed = metrics.timed(PantryMetrics.DECREMENT_BY_NAME, callback);
+        if (!hasLiveNameIndex(userId)) {
+            timed.onFailure(new Exception("Pantry is not loaded"));
+            return;
+        }
+
+        Item item = nameIndex.findSoonestExpiring(itemName);
+        if (item == null) {
+            timed.onFailure(new Exception("Item not found"));
+            return;
+        }
+
+        if (item.getQuantity() - amount <= 0) {
+            deleteDocument(item.getDocumentId(), timed);
+            return;
+        }
+
+        metrics.markWrite(item.getDocumentId());
+        items().document(item.getDocumentId())
+                .update("quantity", FieldValue.increment(-amount))
+                .addOnSuccessListener(aVoid -> {
+                    timed.onSuccess();
+                })
+                .addOnFailureListener(e -> {
+                    timed.onFailure(e);
+                });
+    }
+
+    private boolean hasLiveNameIndex(String userId) {
+        return userId != null && userId.equals(listeningUserId) && nameIndex.isLive();
+    }
+}
\ No newline at end of file
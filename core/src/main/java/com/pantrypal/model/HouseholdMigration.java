@@ -0,0 +1,202 @@
+package com.pantrypal.model;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.Transaction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Moves a user's documents from the legacy "pantry" collection into their own household,
+// keeping document IDs. Each page is moved in one transaction that re-reads its documents, so
+// an increment, upsert or delete landing after the page query is either moved with the document
+// or makes the transaction retry; nothing half-moved is left behind and the next run simply
+// finds fewer documents. A lot written back to the legacy collection after its move is added
+// to the household copy. It finishes once a full pass from the start moves nothing, which also
+// catches documents written to the legacy collection while it was running. Firestore callbacks
+// arrive on the main thread.
+class HouseholdMigration {
+
+    private static final String PREFS_NAME = "household_migration";
+    private static final String KEY_DONE = "done_";
+    // Two reads and two writes per document; small enough for a transaction to retry cheaply
+    private static final int PAGE_SIZE = 50;
+
+    // Migrations running in this process, by user
+    private static final Map<String, HouseholdMigration> running = new HashMap<>();
+
+    private final FirebaseFirestore db;
+    private final Query legacy;
+    private final CollectionReference target;
+    private final String userId;
+    private final SharedPreferences prefs;
+    private final FirestoreManager.ActionCallback callback;
+
+    private final List<Runnable> onStopped = new ArrayList<>();
+    private boolean cancelled;
+    private DocumentSnapshot cursor;
+    private int movedThisPass;
+
+    private HouseholdMigration(Context context, FirebaseFirestore db, Query legacy, CollectionReference target,
+                               String userId, FirestoreManager.ActionCallback callback) {
+        this.db = db;
+        this.legacy = legacy.orderBy(FieldPath.documentId());
+        this.target = target;
+        this.userId = userId;
+        this.prefs = prefs(context);
+        this.callback = callback;
+    }
+
+    static boolean isComplete(Context context, String userId) {
+        return prefs(context).getBoolean(KEY_DONE + userId, false);
+    }
+
+    // callback.onSuccess() fires once everything has moved
+    static void startIfNeeded(Context context, FirestoreManager manager, FirebaseFirestore db, Query legacy,
+                              CollectionReference target, String userId, FirestoreManager.ActionCallback callback) {
+        if (isComplete(context, userId)) return;
+        HouseholdMigration current = running.get(userId);
+        if (current != null) {
+            // A cancelled run still settling hands over to this one
+            if (current.cancelled) {
+                current.onStopped.add(() -> startIfNeeded(context, manager, db, legacy, target, userId, callback));
+            }
+            return;
+        }
+
+        HouseholdMigration migration = new HouseholdMigration(context, db, legacy, target, userId, callback);
+        running.put(userId, migration);
+        manager.createHousehold(userId, new FirestoreManager.ActionCallback() {
+            @Override
+            public void onSuccess() {
+                migration.moveNextPage();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                migration.stop("Creating household failed", e);
+            }
+        });
+    }
+
+    // Stops the user's migration once the step in flight has settled, so nothing it moves lands
+    // after onStopped runs. Neither callback fires; the next start resumes it.
+    static void cancel(String userId, Runnable onStopped) {
+        HouseholdMigration migration = running.get(userId);
+        if (migration == null) {
+            onStopped.run();
+            return;
+        }
+        migration.cancelled = true;
+        migration.onStopped.add(onStopped);
+    }
+
+    private static SharedPreferences prefs(Context context) {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    private void moveNextPage() {
+        if (stopIfCancelled()) return;
+        Query page = legacy.limit(PAGE_SIZE);
+        if (cursor != null) page = page.startAfter(cursor);
+
+        page.get(Source.SERVER).addOnCompleteListener(task -> {
+            if (!task.isSuccessful()) {
+                stop("Household migration read failed", task.getException());
+                return;
+            }
+
+            List<DocumentSnapshot> documents = task.getResult().getDocuments();
+            boolean lastPage = documents.size() < PAGE_SIZE;
+            if (documents.isEmpty()) {
+                advance(lastPage);
+                return;
+            }
+            cursor = documents.get(documents.size() - 1);
+            if (stopIfCancelled()) return;
+
+            List<DocumentReference> sources = new ArrayList<>();
+            for (DocumentSnapshot document : documents) sources.add(document.getReference());
+            db.runTransaction(transaction -> movePage(transaction, sources)).addOnCompleteListener(move -> {
+                if (move.isSuccessful()) {
+                    movedThisPass += move.getResult();
+                    advance(lastPage);
+                } else {
+                    stop("Household migration write failed", move.getException());
+                }
+            });
+        });
+    }
+
+    // May run more than once; touches nothing outside the transaction
+    private int movePage(Transaction transaction, List<DocumentReference> sources) throws FirebaseFirestoreException {
+        // All reads come before the first write
+        List<DocumentSnapshot> documents = new ArrayList<>();
+        List<DocumentSnapshot> existing = new ArrayList<>();
+        for (DocumentReference source : sources) {
+            documents.add(transaction.get(source));
+            existing.add(transaction.get(target.document(source.getId())));
+        }
+
+        int moves = 0;
+        for (int i = 0; i < documents.size(); i++) {
+            // Deleted since the page was read, or unreadable; the cursor steps past either
+            DocumentSnapshot document = documents.get(i);
+            Item item = document.exists() ? ItemCodec.fromDocument(document) : null;
+            if (item == null) continue;
+
+            Item moved = existing.get(i).exists() ? ItemCodec.fromDocument(existing.get(i)) : null;
+            if (moved != null) item.setQuantity(moved.getQuantity() + item.getQuantity());
+            transaction.set(target.document(document.getId()), ItemCodec.toMap(item));
+            transaction.delete(document.getReference());
+            moves++;
+        }
+        return moves;
+    }
+
+    private void advance(boolean lastPage) {
+        if (!lastPage) {
+            moveNextPage();
+        } else if (movedThisPass > 0) {
+            movedThisPass = 0;
+            cursor = null;
+            moveNextPage();
+        } else {
+            prefs.edit().putBoolean(KEY_DONE + userId, true).apply();
+            Log.d("Firestore", "Household migration finished for " + userId);
+            finish();
+            if (callback != null && !cancelled) callback.onSuccess();
+        }
+    }
+
+    private void stop(String message, Exception e) {
+        Log.w("Firestore", message + "; will resume next time", e);
+        finish();
+        if (callback != null && !cancelled) callback.onFailure(e);
+    }
+
+    private boolean stopIfCancelled() {
+        if (!cancelled) return false;
+        Log.d("Firestore", "Household migration cancelled for " + userId);
+        finish();
+        return true;
+    }
+
+    private void finish() {
+        running.remove(userId);
+        for (Runnable stopped : onStopped) stopped.run();
+        onStopped.clear();
+    }
+}
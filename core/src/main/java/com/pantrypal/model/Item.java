@@ -0,0 +1,175 @@
+package com.pantrypal.model;
+
+import com.google.firebase.firestore.Exclude;
+import com.google.firebase.firestore.IgnoreExtraProperties;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Comparator;
+
+@IgnoreExtraProperties
+public class Item {
+
+    // Epoch day for a missing (or unparseable) date
+    public static final long NO_DATE = Long.MAX_VALUE;
+    // Sort key for items without a (valid) expiry date; they sort after everything else
+    public static final long NO_EXPIRY = NO_DATE;
+
+    public static final Comparator<Item> EXPIRY_ORDER =
+            (i1, i2) -> Long.compare(i1.expiryEpochDay, i2.expiryEpochDay);
+
+    // --- FIELDS ---
+    @Exclude
+    private String documentId;
+    private String userId;
+    private String name;
+    private double quantity;
+    private String unit;
+    private String purchaseDate;
+    private String expiryDate;
+
+    // Dates are held as epoch days; the ISO strings are only formatted when someone asks
+    // for them, so decoding a v2 document or sorting never touches LocalDate
+    @Exclude
+    private long purchaseEpochDay = NO_DATE;
+    @Exclude
+    private long expiryEpochDay = NO_EXPIRY;
+    @Exclude
+    private int unitCode = ItemUnit.OTHER;
+    // Set while a local write to the document has not reached the server yet
+    @Exclude
+    private boolean pendingWrite;
+
+    // --- CONSTRUCTORS ---
+    public Item() { }
+
+    public Item(String userId, String name, double quantity, String unit, LocalDate purchaseDate, LocalDate expiryDate) {
+        this.userId = userId;
+        this.name = name;
+        this.quantity = quantity;
+        setUnit(unit);
+        this.purchaseEpochDay = (purchaseDate != null) ? purchaseDate.toEpochDay() : NO_DATE;
+        this.expiryEpochDay = (expiryDate != null) ? expiryDate.toEpochDay() : NO_EXPIRY;
+    }
+
+    // --- BUSINESS LOGIC ---
+    @Exclude
+    public long getDaysUntilExpiry() {
+        return getDaysUntilExpiry(PantryClock.system().todayEpochDay());
+    }
+
+    @Exclude
+    public long getDaysUntilExpiry(long todayEpochDay) {
+        if (expiryEpochDay == NO_EXPIRY) return 0;
+        return expiryEpochDay - todayEpochDay;
+    }
+
+    public Item copy() {
+        Item copy = new Item();
+        copy.documentId = documentId;
+        copy.userId = userId;
+        copy.name = name;
+        copy.quantity = quantity;
+        copy.unit = unit;
+        copy.unitCode = unitCode;
+        copy.purchaseDate = purchaseDate;
+        copy.expiryDate = expiryDate;
+        copy.purchaseEpochDay = purchaseEpochDay;
+        copy.expiryEpochDay = expiryEpochDay;
+        copy.pendingWrite = pendingWrite;
+        return copy;
+    }
+
+    @Exclude
+    public boolean isCountable() {
+        return unitCode == ItemUnit.PCS;
+    }
+
+    // --- GETTERS & SETTERS ---
+    @Exclude
+    public String getDocumentId() { return documentId; }
+    public void setDocumentId(String documentId) { this.documentId = documentId; }
+
+    @Exclude
+    public boolean isPendingWrite() { return pendingWrite; }
+    @Exclude
+    public void setPendingWrite(boolean pendingWrite) { this.pendingWrite = pendingWrite; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public double getQuantity() { return quantity; }
+    public void setQuantity(double quantity) { this.quantity = quantity; }
+
+    public String getUnit() { return unit; }
+    public void setUnit(String unit) {
+        this.unit = unit;
+        this.unitCode = ItemUnit.codeOf(unit);
+    }
+
+    @Exclude
+    public int getUnitCode() { return unitCode; }
+    public void setUnitCode(int unitCode) {
+        this.unitCode = unitCode;
+        this.unit = ItemUnit.nameOf(unitCode);
+    }
+
+    public String getPurchaseDate() {
+        if (purchaseDate == null && purchaseEpochDay != NO_DATE) {
+            purchaseDate = LocalDate.ofEpochDay(purchaseEpochDay).toString();
+        }
+        return purchaseDate;
+    }
+    public void setPurchaseDate(String purchaseDate) {
+        this.purchaseDate = purchaseDate;
+        this.purchaseEpochDay = parseEpochDay(purchaseDate);
+    }
+
+    public String getExpiryDate() {
+        if (expiryDate == null && expiryEpochDay != NO_EXPIRY) {
+            expiryDate = LocalDate.ofEpochDay(expiryEpochDay).toString();
+        }
+        return expiryDate;
+    }
+    public void setExpiryDate(String expiryDate) {
+        this.expiryDate = expiryDate;
+        this.expiryEpochDay = parseEpochDay(expiryDate);
+    }
+
+    @Exclude
+    public long getPurchaseEpochDay() { return purchaseEpochDay; }
+    public void setPurchaseEpochDay(long purchaseEpochDay) {
+        this.purchaseEpochDay = purchaseEpochDay;
+        this.purchaseDate = null;
+    }
+
+    @Exclude
+    public long getExpiryEpochDay() { return expiryEpochDay; }
+    public void setExpiryEpochDay(long expiryEpochDay) {
+        this.expiryEpochDay = expiryEpochDay;
+        this.expiryDate = null;
+    }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    // --- HELPER METHODS ---
+    @Exclude
+    public LocalDate getPurchaseDateAsLocal() {
+        return purchaseEpochDay == NO_DATE ? null : LocalDate.ofEpochDay(purchaseEpochDay);
+    }
+
+    @Exclude
+    public LocalDate getExpiryDateAsLocal() {
+        return expiryEpochDay == NO_EXPIRY ? null : LocalDate.ofEpochDay(expiryEpochDay);
+    }
+
+    private static long parseEpochDay(String isoDate) {
+        if (isoDate == null || isoDate.isEmpty()) return NO_DATE;
+        try {
+            return LocalDate.parse(isoDate).toEpochDay();
+        } catch (DateTimeParseException e) {
+            return NO_DATE;
+        }
+    }
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.pantrypal.model;
+
+public class ItemChange {
+
+    public enum Type { ADDED, MODIFIED, REMOVED }
+
+    private final Type type;
+    private final Item item;
+
+    public ItemChange(Type type, Item item) {
+        this.type = type;
+        this.item = item;
+    }
+
+    public Type getType() { return type; }
+
+    public Item getItem() { return item; }
+}
@@ -0,0 +1,99 @@
+package com.pantrypal.model;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Hand-written mapping between Item and its Firestore document. Replaces toObject()/set(item),
+// which go through the SDK's reflective bean mapper on every document.
+//
+// Schema versions:
+//   v1 (no "v" field): unit, purchaseDate and expiryDate as strings ("kg", "2026-01-17")
+//   v2 ("v": 2): unitCode as an ItemUnit code, with unit text only for OTHER, and
+//       purchaseDay/expiryDay as epoch days; a missing day means no date. nameKey (the
+//       ItemNameIndex form of the name) is written too, but older v2 documents may lack it.
+// Both are read; only v2 is written. HouseholdMigration re-encodes v1 documents as it moves them.
+public final class ItemCodec {
+
+    static final int SCHEMA_VERSION = 2;
+
+    static final String FIELD_SCHEMA_VERSION = "v";
+    static final String FIELD_USER_ID = "userId";
+    static final String FIELD_NAME = "name";
+    static final String FIELD_NAME_KEY = "nameKey";
+    static final String FIELD_QUANTITY = "quantity";
+    static final String FIELD_UNIT = "unit";
+    static final String FIELD_UNIT_CODE = "unitCode";
+    static final String FIELD_PURCHASE_DAY = "purchaseDay";
+    static final String FIELD_EXPIRY_DAY = "expiryDay";
+
+    // v1 only
+    static final String FIELD_PURCHASE_DATE = "purchaseDate";
+    static final String FIELD_EXPIRY_DATE = "expiryDate";
+
+    private ItemCodec() { }
+
+    // Returns null for documents that can't be read as an Item
+    public static Item fromDocument(DocumentSnapshot document) {
+        try {
+            Item item = new Item();
+            item.setDocumentId(document.getId());
+            item.setPendingWrite(document.getMetadata().hasPendingWrites());
+            item.setUserId(document.getString(FIELD_USER_ID));
+            item.setName(document.getString(FIELD_NAME));
+            Double quantity = document.getDouble(FIELD_QUANTITY);
+            item.setQuantity(quantity != null ? quantity : 0);
+
+            if (schemaVersion(document) >= 2) {
+                Long unitCode = document.getLong(FIELD_UNIT_CODE);
+                if (unitCode != null && unitCode != ItemUnit.OTHER) {
+                    item.setUnitCode(unitCode.intValue());
+                } else {
+                    item.setUnit(document.getString(FIELD_UNIT));
+                }
+                Long purchaseDay = document.getLong(FIELD_PURCHASE_DAY);
+                item.setPurchaseEpochDay(purchaseDay != null ? purchaseDay : Item.NO_DATE);
+                Long expiryDay = document.getLong(FIELD_EXPIRY_DAY);
+                item.setExpiryEpochDay(expiryDay != null ? expiryDay : Item.NO_EXPIRY);
+            } else {
+                item.setUnit(document.getString(FIELD_UNIT));
+                item.setPurchaseDate(document.getString(FIELD_PURCHASE_DATE));
+                item.setExpiryDate(document.getString(FIELD_EXPIRY_DATE));
+            }
+            return item;
+        } catch (RuntimeException e) {
+            Log.e("Firestore", "Error converting document " + document.getId(), e);
+            return null;
+        }
+    }
+
+    static int schemaVersion(DocumentSnapshot document) {
+        Long version = document.getLong(FIELD_SCHEMA_VERSION);
+        return version != null ? version.intValue() : 1;
+    }
+
+    public static Map<String, Object> toMap(Item item) {
+        Map<String, Object> map = new HashMap<>();
+        map.put(FIELD_SCHEMA_VERSION, SCHEMA_VERSION);
+        map.put(FIELD_USER_ID, item.getUserId());
+        map.put(FIELD_NAME, item.getName());
+        map.put(FIELD_NAME_KEY, ItemNameIndex.normalize(item.getName()));
+        map.put(FIELD_QUANTITY, item.getQuantity());
+        putV2Fields(map, item);
+        return map;
+    }
+
+    private static void putV2Fields(Map<String, Object> map, Item item) {
+        map.put(FIELD_UNIT_CODE, item.getUnitCode());
+        if (item.getUnitCode() == ItemUnit.OTHER) map.put(FIELD_UNIT, item.getUnit());
+        if (item.getPurchaseEpochDay() != Item.NO_DATE) {
+            map.put(FIELD_PURCHASE_DAY, item.getPurchaseEpochDay());
+        }
+        if (item.getExpiryEpochDay() != Item.NO_EXPIRY) {
+            map.put(FIELD_EXPIRY_DAY, item.getExpiryEpochDay());
+        }
+    }
+}
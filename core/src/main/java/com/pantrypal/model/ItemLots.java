@@ -0,0 +1,44 @@
+package com.pantrypal.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// Deterministic document IDs for item lots. A lot is one owner's stock of one item in one unit
+// expiring on one day, so "Milk" and " milk " bought for the same date land on the same
+// document and adding it again can be a quantity increment instead of a duplicate.
+public final class ItemLots {
+
+    static final String PREFIX = "lot_";
+    // 20 bytes of SHA-256: short enough for a readable ID, far too long to collide
+    private static final int ID_BYTES = 20;
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private ItemLots() { }
+
+    // owner is the household ID, or the user ID in the legacy collection
+    public static String documentId(String owner, Item item) {
+        return documentId(owner, item.getName(), item.getUnitCode(), item.getUnit(), item.getExpiryEpochDay());
+    }
+
+    static String documentId(String owner, String name, int unitCode, String unit, long expiryEpochDay) {
+        // Free-text units only match themselves; coded units match by code
+        String unitKey = unitCode == ItemUnit.OTHER ? "other:" + ItemNameIndex.normalize(unit) : Integer.toString(unitCode);
+        String expiryKey = expiryEpochDay == Item.NO_EXPIRY ? "none" : Long.toString(expiryEpochDay);
+        String key = owner + '\u0000' + ItemNameIndex.normalize(name) + '\u0000' + unitKey + '\u0000' + expiryKey;
+
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to provide SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        StringBuilder id = new StringBuilder(PREFIX.length() + ID_BYTES * 2).append(PREFIX);
+        for (int i = 0; i < ID_BYTES; i++) {
+            id.append(HEX[(digest[i] >> 4) & 0xf]).append(HEX[digest[i] & 0xf]);
+        }
+        return id.toString();
+    }
+}
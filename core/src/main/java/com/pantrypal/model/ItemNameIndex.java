@@ -0,0 +1,89 @@
+package com.pantrypal.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Normalized item name -> items with that name, kept current by the live pantry listener so
+// name-based writes can skip the lookup query. Names may repeat (several lots of "Milk").
+// Updated from the snapshot executor and read from the main thread, hence synchronized.
+public class ItemNameIndex {
+
+    private final Map<String, Map<String, Item>> itemsByName = new HashMap<>();
+    private final Map<String, String> nameByDocumentId = new HashMap<>();
+    private boolean live;
+
+    public static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // The index only answers lookups while a full listener has delivered at least one snapshot
+    public synchronized boolean isLive() { return live; }
+
+    synchronized void replaceAll(List<Item> items) {
+        itemsByName.clear();
+        nameByDocumentId.clear();
+        for (Item item : items) put(item);
+        live = true;
+    }
+
+    synchronized void apply(List<ItemChange> changes, boolean fullSnapshot) {
+        if (fullSnapshot) {
+            itemsByName.clear();
+            nameByDocumentId.clear();
+        }
+        for (ItemChange change : changes) {
+            remove(change.getItem().getDocumentId());
+            if (change.getType() != ItemChange.Type.REMOVED) put(change.getItem());
+        }
+        live = true;
+    }
+
+    synchronized void invalidate() {
+        itemsByName.clear();
+        nameByDocumentId.clear();
+        live = false;
+    }
+
+    // Lookup
+
+    public synchronized List<Item> find(String name) {
+        Map<String, Item> matches = itemsByName.get(normalize(name));
+        return matches == null ? new ArrayList<>() : new ArrayList<>(matches.values());
+    }
+
+    // The lot that should be used up first when a name refers to several
+    public synchronized Item findSoonestExpiring(String name) {
+        Map<String, Item> matches = itemsByName.get(normalize(name));
+        if (matches == null) return null;
+
+        Item soonest = null;
+        for (Item item : matches.values()) {
+            if (soonest == null || Item.EXPIRY_ORDER.compare(item, soonest) < 0) soonest = item;
+        }
+        return soonest;
+    }
+
+    private void put(Item item) {
+        String key = normalize(item.getName());
+        Map<String, Item> matches = itemsByName.get(key);
+        if (matches == null) {
+            matches = new HashMap<>(2);
+            itemsByName.put(key, matches);
+        }
+        matches.put(item.getDocumentId(), item);
+        nameByDocumentId.put(item.getDocumentId(), key);
+    }
+
+    private void remove(String documentId) {
+        String key = nameByDocumentId.remove(documentId);
+        if (key == null) return;
+        Map<String, Item> matches = itemsByName.get(key);
+        if (matches != null) {
+            matches.remove(documentId);
+            if (matches.isEmpty()) itemsByName.remove(key);
+        }
+    }
+}
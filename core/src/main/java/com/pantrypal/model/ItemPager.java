@@ -0,0 +1,325 @@
+package com.pantrypal.model;
+
+import android.util.Log;
+
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.MetadataChanges;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Windowed view of a large pantry ordered by expiry. Pages are fetched with startAfter cursors
+// as the list scrolls, and only the pages around the visible rows keep a live listener.
+public class ItemPager {
+
+    // Rows from the end of the loaded pages at which the next page is requested
+    private static final int PREFETCH_DISTANCE = 10;
+    // Pages on either side of the visible ones that stay live
+    private static final int LIVE_PAGE_MARGIN = 1;
+
+    public interface PageSyncListener {
+        // A page's listener has heard from the server: documentIds is everything now in range
+        void onPageSynced(Range range, Set<String> documentIds);
+    }
+
+    // The (expiry day, document ID) keys a page listener covers; a null end is unbounded
+    public static final class Range {
+        final Long fromDay;
+        final String fromId;
+        final Long toDay;
+        final String toId;
+        final boolean toInclusive;
+
+        Range(DocumentSnapshot from, DocumentSnapshot to, boolean toInclusive) {
+            this.fromDay = from != null ? from.getLong(ItemCodec.FIELD_EXPIRY_DAY) : null;
+            this.fromId = from != null ? from.getId() : null;
+            this.toDay = to != null ? to.getLong(ItemCodec.FIELD_EXPIRY_DAY) : null;
+            this.toId = to != null ? to.getId() : null;
+            this.toInclusive = toInclusive;
+        }
+    }
+
+    private static class Page {
+        DocumentSnapshot first;
+        DocumentSnapshot last;
+        boolean openEnded;
+        ListenerRegistration registration;
+        final Map<String, Item> items = new LinkedHashMap<>();
+    }
+
+    private final Query baseQuery;
+    private final int pageSize;
+    private final FirestoreManager.ItemChangeCallback callback;
+    private final List<Page> pages = new ArrayList<>();
+    private PageSyncListener syncListener;
+
+    private boolean loading;
+    private boolean reachedEnd;
+    private boolean delivered;
+    private boolean stopped;
+    private int firstVisible;
+    private int lastVisible;
+
+    ItemPager(Query baseQuery, int pageSize, FirestoreManager.ItemChangeCallback callback) {
+        this.baseQuery = baseQuery;
+        this.pageSize = pageSize;
+        this.callback = callback;
+    }
+
+    // Called on the main thread, where syncs are delivered
+    public void setPageSyncListener(PageSyncListener listener) {
+        this.syncListener = listener;
+    }
+
+    // Load Next Page
+
+    public void loadNextPage() {
+        // The first page must land before anything is appended behind it
+        if (loading || reachedEnd || stopped || (!delivered && !pages.isEmpty())) return;
+        loading = true;
+
+        Page previous = pages.isEmpty() ? null : pages.get(pages.size() - 1);
+        Query query = baseQuery.limit(pageSize);
+        if (previous != null) query = query.startAfter(previous.last);
+
+        query.get()
+                .addOnSuccessListener(snapshot -> {
+                    loading = false;
+                    if (stopped) return;
+
+                    List<DocumentSnapshot> documents = snapshot.getDocuments();
+                    if (documents.size() < pageSize) reachedEnd = true;
+
+                    if (documents.isEmpty()) {
+                        if (previous == null) {
+                            delivered = true;
+                            callback.onChanges(new ArrayList<>(), true);
+                        } else {
+                            // Nothing behind the last page, so it must also pick up later additions
+                            reopenTail(previous);
+                        }
+                        return;
+                    }
+
+                    Page page = new Page();
+                    page.first = documents.get(0);
+                    page.last = documents.get(documents.size() - 1);
+                    page.openEnded = reachedEnd;
+                    pages.add(page);
+                    // The previous page now ends where this one starts, so it is re-attached
+                    if (previous != null && previous.registration != null) {
+                        previous.registration.remove();
+                        previous.registration = null;
+                    }
+                    updateLiveWindow();
+                })
+                .addOnFailureListener(e -> {
+                    loading = false;
+                    Log.w("Firestore", "Error loading page", e);
+                });
+    }
+
+    // Visible Window
+
+    public void onVisibleRangeChanged(int first, int last) {
+        firstVisible = first;
+        lastVisible = last;
+        updateLiveWindow();
+
+        if (last >= loadedCount() - PREFETCH_DISTANCE) {
+            loadNextPage();
+        }
+    }
+
+    private void updateLiveWindow() {
+        if (stopped || pages.isEmpty()) return;
+
+        int firstLive = pageForPosition(firstVisible) - LIVE_PAGE_MARGIN;
+        int lastLive = pageForPosition(lastVisible) + LIVE_PAGE_MARGIN;
+
+        for (int i = 0; i < pages.size(); i++) {
+            Page page = pages.get(i);
+            boolean live = i >= firstLive && i <= lastLive;
+            if (live && page.registration == null) {
+                attach(i, page);
+            } else if (!live && page.registration != null) {
+                page.registration.remove();
+                page.registration = null;
+            }
+        }
+    }
+
+    private int pageForPosition(int position) {
+        int end = 0;
+        for (int i = 0; i < pages.size(); i++) {
+            end += pages.get(i).items.size();
+            if (position < end) return i;
+        }
+        return pages.size() - 1;
+    }
+
+    private int loadedCount() {
+        int count = 0;
+        for (Page page : pages) count += page.items.size();
+        return count;
+    }
+
+    // Page Listeners
+
+    private void attach(int index, Page page) {
+        // Pages are bounded by cursors rather than by limit(), so items inserted elsewhere never
+        // shift rows between pages. Each page ends just before the next one starts, so a document
+        // sorting between two pages still lands in the earlier one. The outer edges stay open.
+        Query query = baseQuery;
+        DocumentSnapshot from = index > 0 ? page.first : null;
+        DocumentSnapshot to = null;
+        boolean toInclusive = false;
+        if (from != null) query = query.startAt(from);
+        if (index + 1 < pages.size()) {
+            to = pages.get(index + 1).first;
+            query = query.endBefore(to);
+        } else if (!page.openEnded) {
+            to = page.last;
+            toInclusive = true;
+            query = query.endAt(to);
+        }
+        Range range = new Range(from, to, toInclusive);
+
+        // Decoding happens on the snapshot executor; page state is only touched on the main thread
+        boolean[] firstSnapshot = {true};
+        boolean[] serverSynced = {false};
+        PendingWriteFilter pendingWrites = new PendingWriteFilter();
+        ListenerRegistration[] registration = new ListenerRegistration[1];
+        registration[0] = query.addSnapshotListener(FirestoreManager.SNAPSHOT_EXECUTOR, MetadataChanges.INCLUDE, (value, error) -> {
+            if (error != null) {
+                Log.w("Firestore", "Page listen failed.", error);
+                return;
+            }
+            if (value == null) return;
+
+            boolean reconcile = firstSnapshot[0];
+            firstSnapshot[0] = false;
+            // The first snapshot may come from the cache; only the server's says what is gone
+            Set<String> syncedIds = null;
+            if (!serverSynced[0] && !value.getMetadata().isFromCache()) {
+                serverSynced[0] = true;
+                syncedIds = new HashSet<>();
+                for (DocumentSnapshot document : value.getDocuments()) syncedIds.add(document.getId());
+            }
+            Set<String> synced = syncedIds;
+            List<DocumentChange> changes = pendingWrites.changes(value);
+            if (!reconcile && changes.isEmpty() && synced == null) return;
+
+            long decodeStart = PantryMetrics.nowMicros();
+            List<ItemChange> decoded = reconcile ? decodeAll(value) : decodeChanges(changes);
+            PantryMetrics metrics = PantryMetrics.get();
+            metrics.record(PantryMetrics.SNAPSHOT_DECODE, PantryMetrics.nowMicros() - decodeStart);
+            metrics.record(PantryMetrics.SNAPSHOT_SIZE, value.size());
+            metrics.record(PantryMetrics.SNAPSHOT_CHANGES, decoded.size());
+            DocumentSnapshot lastDocument = value.isEmpty() ? null : value.getDocuments().get(value.size() - 1);
+
+            FirestoreManager.MAIN_HANDLER.post(() -> {
+                if (stopped || page.registration != registration[0]) return;
+                onPageSnapshot(page, decoded, reconcile, lastDocument);
+                if (synced != null && syncListener != null) syncListener.onPageSynced(range, synced);
+            });
+        });
+        page.registration = registration[0];
+    }
+
+    private void reopenTail(Page tail) {
+        tail.openEnded = true;
+        if (tail.registration != null) {
+            tail.registration.remove();
+            tail.registration = null;
+        }
+        updateLiveWindow();
+    }
+
+    private static List<ItemChange> decodeAll(QuerySnapshot snapshot) {
+        List<ItemChange> decoded = new ArrayList<>(snapshot.size());
+        for (DocumentSnapshot document : snapshot.getDocuments()) {
+            Item item = ItemCodec.fromDocument(document);
+            if (item != null) decoded.add(new ItemChange(ItemChange.Type.ADDED, item));
+        }
+        return decoded;
+    }
+
+    private static List<ItemChange> decodeChanges(List<DocumentChange> changes) {
+        List<ItemChange> decoded = new ArrayList<>();
+        for (DocumentChange change : changes) {
+            PantryMetrics.get().onListenerChange(change.getDocument().getId());
+            Item item = ItemCodec.fromDocument(change.getDocument());
+            if (item == null) continue;
+            decoded.add(new ItemChange(change.getType() == DocumentChange.Type.REMOVED
+                    ? ItemChange.Type.REMOVED : ItemChange.Type.MODIFIED, item));
+        }
+        return decoded;
+    }
+
+    private void onPageSnapshot(Page page, List<ItemChange> decoded, boolean reconcile, DocumentSnapshot lastDocument) {
+        List<ItemChange> changes = new ArrayList<>();
+
+        if (reconcile) {
+            // A (re)attached page reports everything as ADDED; reconcile against what we held so
+            // deletions made while the page was detached are not missed.
+            Set<String> seen = new HashSet<>();
+            for (ItemChange change : decoded) {
+                Item item = change.getItem();
+                seen.add(item.getDocumentId());
+                Item previous = page.items.put(item.getDocumentId(), item);
+                changes.add(new ItemChange(previous == null ? ItemChange.Type.ADDED : ItemChange.Type.MODIFIED, item));
+            }
+            Iterator<Item> held = page.items.values().iterator();
+            while (held.hasNext()) {
+                Item item = held.next();
+                if (!seen.contains(item.getDocumentId())) {
+                    held.remove();
+                    changes.add(new ItemChange(ItemChange.Type.REMOVED, item));
+                }
+            }
+        } else {
+            for (ItemChange change : decoded) {
+                Item item = change.getItem();
+                if (change.getType() == ItemChange.Type.REMOVED) {
+                    page.items.remove(item.getDocumentId());
+                    changes.add(change);
+                } else {
+                    Item previous = page.items.put(item.getDocumentId(), item);
+                    changes.add(new ItemChange(previous == null ? ItemChange.Type.ADDED : ItemChange.Type.MODIFIED, item));
+                }
+            }
+        }
+
+        if (page.openEnded && lastDocument != null) {
+            page.last = lastDocument;
+        }
+
+        boolean fullSnapshot = !delivered;
+        delivered = true;
+        if (fullSnapshot || !changes.isEmpty()) {
+            callback.onChanges(changes, fullSnapshot);
+        }
+    }
+
+    // Stop
+
+    public void stop() {
+        stopped = true;
+        for (Page page : pages) {
+            if (page.registration != null) {
+                page.registration.remove();
+                page.registration = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.pantrypal.model;
+
+import android.util.JsonReader;
+import android.util.JsonToken;
+import android.util.JsonWriter;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streaming CSV and JSON for moving items in and out of the app. Sources hand out one row at a
+// time and sinks write one item at a time, so a file of any length needs constant memory.
+// CSV has a header row naming the columns (name, quantity, unit, purchaseDate, expiryDate,
+// any order); JSON is an array of objects with the same keys. Dates are ISO yyyy-MM-dd.
+public final class ItemRecords {
+
+    static final String NAME = "name";
+    static final String QUANTITY = "quantity";
+    static final String UNIT = "unit";
+    static final String PURCHASE_DATE = "purchaseDate";
+    static final String EXPIRY_DATE = "expiryDate";
+    static final String[] COLUMNS = {NAME, QUANTITY, UNIT, PURCHASE_DATE, EXPIRY_DATE};
+
+    public enum Format { CSV, JSON }
+
+    private ItemRecords() { }
+
+    public interface Source extends Closeable {
+        // Null once the input is exhausted
+        Row next() throws IOException;
+    }
+
+    public interface Sink extends Closeable {
+        void write(Item item) throws IOException;
+    }
+
+    public static Source source(Format format, Reader in) throws IOException {
+        return format == Format.JSON ? new JsonSource(in) : new CsvSource(in);
+    }
+
+    public static Sink sink(Format format, Writer out) throws IOException {
+        return format == Format.JSON ? new JsonSink(out) : new CsvSink(out);
+    }
+
+    // Row
+
+    // One record as text, checked with the same rules as AddActivity before it becomes an Item
+    public static class Row {
+        final int line;
+        final String[] values = new String[COLUMNS.length];
+
+        Row(int line) {
+            this.line = line;
+        }
+
+        public int getLine() { return line; }
+
+        void set(String column, String value) {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (COLUMNS[i].equals(column)) values[i] = value != null ? value.trim() : null;
+            }
+        }
+
+        String get(String column) {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (COLUMNS[i].equals(column)) return values[i];
+            }
+            return null;
+        }
+
+        // Null when the row is valid. A blank purchase date means today, like AddActivity's
+        // default. Unlike AddActivity, a blank expiry date is accepted and means none: items
+        // without one exist (older documents), export writes them blank, and an export has to
+        // import again.
+        public String validate() {
+            String error = ItemValidator.nameError(get(NAME));
+            if (error == null) error = ItemValidator.unitError(get(UNIT));
+            if (error == null) error = ItemValidator.quantityError(get(QUANTITY), get(UNIT));
+            if (error == null && !isDateOrBlank(get(PURCHASE_DATE))) error = "Invalid Purchase Date";
+            if (error == null && !isDateOrBlank(get(EXPIRY_DATE))) error = "Invalid Expiry Date";
+            return error;
+        }
+
+        // Only call on a row that validated
+        public Item toItem(String userId, LocalDate today) {
+            String purchase = get(PURCHASE_DATE);
+            String expiry = get(EXPIRY_DATE);
+            return new Item(userId, get(NAME), Double.parseDouble(get(QUANTITY)),
+                    ItemUnit.nameOf(ItemUnit.codeOf(get(UNIT))),
+                    isBlank(purchase) ? today : LocalDate.parse(purchase),
+                    isBlank(expiry) ? null : LocalDate.parse(expiry));
+        }
+
+        private static boolean isDateOrBlank(String value) {
+            if (isBlank(value)) return true;
+            try {
+                LocalDate.parse(value);
+                return true;
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+
+        private static boolean isBlank(String value) {
+            return value == null || value.isEmpty();
+        }
+    }
+
+    private static String[] valuesOf(Item item) {
+        return new String[]{
+                item.getName(),
+                formatQuantity(item.getQuantity()),
+                item.getUnit(),
+                item.getPurchaseDate(),
+                item.getExpiryDate()
+        };
+    }
+
+    // "2" rather than "2.0" for whole amounts
+    static String formatQuantity(double quantity) {
+        return quantity % 1 == 0 && Math.abs(quantity) < 1e15
+                ? Long.toString((long) quantity)
+                : Double.toString(quantity);
+    }
+
+    // CSV
+
+    // Spreadsheets run a cell starting with one of these as a formula. Exported cells that start
+    // with one get a leading ', which spreadsheets hide and CsvSource drops again.
+    private static final String FORMULA_PREFIXES = "=+-@\t\r";
+
+    private static class CsvSource implements Source {
+        private final BufferedReader in;
+        private final List<String> fields = new ArrayList<>();
+        private final StringBuilder field = new StringBuilder();
+        // Column name for each CSV position, null for columns we don't know
+        private String[] columns;
+        private int line;
+
+        CsvSource(Reader in) throws IOException {
+            this.in = new BufferedReader(in);
+            if (!readRecord()) return;
+            columns = new String[fields.size()];
+            for (int i = 0; i < columns.length; i++) {
+                // Spreadsheet exports often start with a byte order mark
+                String header = fields.get(i).replace("\uFEFF", "").trim();
+                for (String column : COLUMNS) {
+                    if (column.equalsIgnoreCase(header)) columns[i] = column;
+                }
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            if (columns == null) return null;
+            while (true) {
+                int startLine = line + 1;
+                if (!readRecord()) return null;
+                if (fields.size() == 1 && fields.get(0).isEmpty()) continue; // blank line
+
+                Row row = new Row(startLine);
+                for (int i = 0; i < columns.length && i < fields.size(); i++) {
+                    if (columns[i] != null) row.set(columns[i], unprotect(fields.get(i)));
+                }
+                return row;
+            }
+        }
+
+        // RFC 4180: quoted fields may hold commas, doubled quotes and line breaks
+        private boolean readRecord() throws IOException {
+            fields.clear();
+            field.setLength(0);
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = in.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        in.mark(1);
+                        if (in.read() == '"') {
+                            field.append('"');
+                        } else {
+                            in.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        if (c == '\n') line++;
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        in.mark(1);
+                        if (in.read() != '\n') in.reset();
+                    }
+                    line++;
+                    fields.add(field.toString());
+                    return true;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            if (!any) return false;
+            line++;
+            fields.add(field.toString());
+            return true;
+        }
+
+        private static String unprotect(String value) {
+            return value.length() > 1 && value.charAt(0) == '\''
+                    && FORMULA_PREFIXES.indexOf(value.charAt(1)) >= 0 ? value.substring(1) : value;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static class CsvSink implements Sink {
+        private final Writer out;
+
+        CsvSink(Writer out) throws IOException {
+            this.out = out;
+            writeRecord(COLUMNS);
+        }
+
+        @Override
+        public void write(Item item) throws IOException {
+            writeRecord(valuesOf(item));
+        }
+
+        private void writeRecord(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) out.write(',');
+                out.write(escape(values[i]));
+            }
+            out.write("\r\n");
+        }
+
+        private static String escape(String value) {
+            if (value == null) return "";
+            if (!value.isEmpty() && (FORMULA_PREFIXES.indexOf(value.charAt(0)) >= 0
+                    || !CsvSource.unprotect(value).equals(value))) {
+                value = '\'' + value;
+            }
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    // JSON
+
+    private static class JsonSource implements Source {
+        private final JsonReader in;
+        private int index;
+
+        JsonSource(Reader in) throws IOException {
+            this.in = new JsonReader(in);
+            this.in.beginArray();
+        }
+
+        // For JSON the row "line" is the 1-based position in the array
+        @Override
+        public Row next() throws IOException {
+            if (!in.hasNext()) return null;
+            Row row = new Row(++index);
+            in.beginObject();
+            while (in.hasNext()) {
+                String key = in.nextName();
+                JsonToken token = in.peek();
+                if (!isColumn(key) || token == JsonToken.BEGIN_ARRAY || token == JsonToken.BEGIN_OBJECT) {
+                    in.skipValue();
+                } else if (token == JsonToken.NULL) {
+                    in.nextNull();
+                } else if (token == JsonToken.BOOLEAN) {
+                    row.set(key, String.valueOf(in.nextBoolean()));
+                } else {
+                    // Numbers come back as their text
+                    row.set(key, in.nextString());
+                }
+            }
+            in.endObject();
+            return row;
+        }
+
+        private static boolean isColumn(String key) {
+            for (String column : COLUMNS) {
+                if (column.equals(key)) return true;
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    private static class JsonSink implements Sink {
+        private final JsonWriter out;
+
+        JsonSink(Writer out) throws IOException {
+            this.out = new JsonWriter(out);
+            this.out.beginArray();
+        }
+
+        @Override
+        public void write(Item item) throws IOException {
+            out.beginObject();
+            out.name(NAME).value(item.getName());
+            out.name(QUANTITY).value(item.getQuantity());
+            out.name(UNIT).value(item.getUnit());
+            if (item.getPurchaseDate() != null) out.name(PURCHASE_DATE).value(item.getPurchaseDate());
+            if (item.getExpiryDate() != null) out.name(EXPIRY_DATE).value(item.getExpiryDate());
+            out.endObject();
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.endArray();
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.pantrypal.model;
+
+import java.util.Objects;
+
+// Everything a pantry row displays, worked out once per data change (off the main thread) so
+// binding a row is only setText/setBackgroundColor calls
+public final class ItemRowState {
+
+    private final Item item;
+    private final String quantityText;
+    private final String expiryText;
+    private final int expiryColorRes;
+
+    ItemRowState(Item item, long todayEpochDay) {
+        this(item, ItemRowText.quantityText(item), todayEpochDay);
+    }
+
+    private ItemRowState(Item item, String quantityText, long todayEpochDay) {
+        this.item = item;
+        long daysUntilExpiry = item.getDaysUntilExpiry(todayEpochDay);
+        this.quantityText = quantityText;
+        this.expiryText = ItemRowText.expiryText(daysUntilExpiry);
+        this.expiryColorRes = ItemRowText.expiryColorRes(daysUntilExpiry);
+    }
+
+    // The same row on another day; only the expiry label and color depend on the date
+    ItemRowState onDay(long todayEpochDay) {
+        if (item.getExpiryEpochDay() == Item.NO_EXPIRY) return this;
+        return new ItemRowState(item, quantityText, todayEpochDay);
+    }
+
+    public Item getItem() { return item; }
+    public String getDocumentId() { return item.getDocumentId(); }
+    public String getName() { return item.getName(); }
+    public String getQuantityText() { return quantityText; }
+    public String getExpiryText() { return expiryText; }
+    public int getExpiryColorRes() { return expiryColorRes; }
+    public boolean isPendingWrite() { return item.isPendingWrite(); }
+
+    // Same on screen, for DiffUtil
+    public boolean looksLike(ItemRowState other) {
+        return Objects.equals(getName(), other.getName())
+                && quantityText.equals(other.quantityText)
+                && expiryText.equals(other.expiryText)
+                && expiryColorRes == other.expiryColorRes
+                && isPendingWrite() == other.isPendingWrite();
+    }
+}
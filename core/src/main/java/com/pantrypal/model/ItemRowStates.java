@@ -0,0 +1,36 @@
+package com.pantrypal.model;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Maps lists of items to row states. The pantry republishes the same Item instances for rows
+// that did not change, so their states are reused and only changed rows are recomputed. After a
+// day change reused states only get new expiry labels. Not thread-safe: keep each instance on
+// one thread.
+public class ItemRowStates {
+
+    private Map<Item, ItemRowState> previous = new IdentityHashMap<>();
+    private long previousDay = Long.MIN_VALUE;
+
+    public List<ItemRowState> map(List<Item> items, long todayEpochDay) {
+        boolean newDay = todayEpochDay != previousDay;
+        previousDay = todayEpochDay;
+
+        Map<Item, ItemRowState> current = new IdentityHashMap<>(items.size() * 2);
+        List<ItemRowState> states = new ArrayList<>(items.size());
+        for (Item item : items) {
+            ItemRowState state = previous.get(item);
+            if (state == null) {
+                state = new ItemRowState(item, todayEpochDay);
+            } else if (newDay) {
+                state = state.onDay(todayEpochDay);
+            }
+            current.put(item, state);
+            states.add(state);
+        }
+        previous = current;
+        return states;
+    }
+}
@@ -0,0 +1,57 @@
+package com.pantrypal.model;
+
+// Display text and indicator color for a pantry row, shared by ItemRowState and the benchmarks
+public final class ItemRowText {
+
+    // Expiry labels within this many days either side of today are built once and reused
+    private static final int CACHED_DAYS = 400;
+    private static final String[] EXPIRY_LABELS = new String[2 * CACHED_DAYS + 1];
+
+    private ItemRowText() { }
+
+    public static String quantityText(Item item) {
+        if (item.isCountable()) {
+            return String.format("%d %s", (int) item.getQuantity(), item.getUnit());
+        } else {
+            return String.format("%.1f %s", item.getQuantity(), item.getUnit());
+        }
+    }
+
+    public static String expiryText(long daysUntilExpiry) {
+        if (daysUntilExpiry < -CACHED_DAYS || daysUntilExpiry > CACHED_DAYS) return buildExpiryText(daysUntilExpiry);
+
+        // Strings are immutable, so a racing thread at worst builds the same label twice
+        int index = (int) daysUntilExpiry + CACHED_DAYS;
+        String label = EXPIRY_LABELS[index];
+        if (label == null) {
+            label = buildExpiryText(daysUntilExpiry);
+            EXPIRY_LABELS[index] = label;
+        }
+        return label;
+    }
+
+    private static String buildExpiryText(long daysUntilExpiry) {
+        if (daysUntilExpiry < 0) {
+            return "Expired " + Math.abs(daysUntilExpiry) + " days ago";
+        } else if (daysUntilExpiry == 0) {
+            return "Expires TODAY!";
+        } else if (daysUntilExpiry <= 3) {
+            return "Expires in " + daysUntilExpiry + " day" + (daysUntilExpiry > 1 ? "s" : "");
+        } else {
+            return "Expires in " + daysUntilExpiry + " days";
+        }
+    }
+
+    // Color resource for the expiry indicator
+    public static int expiryColorRes(long daysUntilExpiry) {
+        if (daysUntilExpiry < 0) {
+            return android.R.color.holo_red_dark;
+        } else if (daysUntilExpiry == 0) {
+            return android.R.color.holo_orange_dark;
+        } else if (daysUntilExpiry <= 7) {
+            return android.R.color.holo_orange_light;
+        } else {
+            return android.R.color.holo_green_dark;
+        }
+    }
+}
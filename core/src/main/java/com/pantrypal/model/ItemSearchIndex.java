@@ -0,0 +1,139 @@
+package com.pantrypal.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Substring search over item names. Queries of three or more characters intersect trigram
+// posting lists; shorter ones look up a table of one- and two-character grams. Both tables are
+// patched per listener change instead of being rebuilt. Not thread-safe: PantryRepository
+// confines it to one executor.
+public class ItemSearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Item> itemsById = new HashMap<>();
+    private final Map<String, Set<String>> idsByTrigram = new HashMap<>();
+    private final Map<String, Set<String>> idsByShortGram = new HashMap<>();
+
+    public void replaceAll(List<Item> items) {
+        itemsById.clear();
+        idsByTrigram.clear();
+        idsByShortGram.clear();
+        for (Item item : items) add(item);
+    }
+
+    public void apply(List<ItemChange> changes) {
+        for (ItemChange change : changes) {
+            remove(change.getItem().getDocumentId());
+            if (change.getType() != ItemChange.Type.REMOVED) add(change.getItem());
+        }
+    }
+
+    // Items whose name contains the query (case-insensitive), in no particular order
+    public List<Item> search(String query) {
+        String normalized = ItemNameIndex.normalize(query);
+        if (normalized.isEmpty()) return new ArrayList<>(itemsById.values());
+
+        Set<String> candidates;
+        if (normalized.length() < GRAM) {
+            candidates = idsByShortGram.get(normalized);
+        } else {
+            candidates = intersectTrigrams(normalized);
+        }
+        if (candidates == null || candidates.isEmpty()) return new ArrayList<>();
+
+        // Trigram hits can be false positives ("abcxbcd" has every gram of "abcd"), so confirm
+        List<Item> results = new ArrayList<>(candidates.size());
+        for (String documentId : candidates) {
+            Item item = itemsById.get(documentId);
+            if (item != null && ItemNameIndex.normalize(item.getName()).contains(normalized)) {
+                results.add(item);
+            }
+        }
+        return results;
+    }
+
+    private Set<String> intersectTrigrams(String normalized) {
+        List<Set<String>> postings = new ArrayList<>();
+        for (String gram : trigrams(normalized)) {
+            Set<String> ids = idsByTrigram.get(gram);
+            if (ids == null) return null;
+            postings.add(ids);
+        }
+
+        // Start from the rarest gram so the intersection stays small
+        Collections.sort(postings, (a, b) -> Integer.compare(a.size(), b.size()));
+        Set<String> result = new HashSet<>(postings.get(0));
+        for (int i = 1; i < postings.size() && !result.isEmpty(); i++) {
+            result.retainAll(postings.get(i));
+        }
+        return result;
+    }
+
+    // Maintenance
+
+    private void add(Item item) {
+        String documentId = item.getDocumentId();
+        String name = ItemNameIndex.normalize(item.getName());
+        itemsById.put(documentId, item);
+
+        for (String gram : trigrams(name)) {
+            post(idsByTrigram, gram, documentId);
+        }
+        for (String gram : shortGrams(name)) {
+            post(idsByShortGram, gram, documentId);
+        }
+    }
+
+    private void remove(String documentId) {
+        Item item = itemsById.remove(documentId);
+        if (item == null) return;
+
+        String name = ItemNameIndex.normalize(item.getName());
+        for (String gram : trigrams(name)) {
+            unpost(idsByTrigram, gram, documentId);
+        }
+        for (String gram : shortGrams(name)) {
+            unpost(idsByShortGram, gram, documentId);
+        }
+    }
+
+    private static void post(Map<String, Set<String>> postings, String key, String documentId) {
+        Set<String> ids = postings.get(key);
+        if (ids == null) {
+            ids = new HashSet<>();
+            postings.put(key, ids);
+        }
+        ids.add(documentId);
+    }
+
+    private static void unpost(Map<String, Set<String>> postings, String key, String documentId) {
+        Set<String> ids = postings.get(key);
+        if (ids == null) return;
+        ids.remove(documentId);
+        if (ids.isEmpty()) postings.remove(key);
+    }
+
+    static Set<String> trigrams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    // One- and two-character substrings, so short queries still match anywhere in the name
+    static Set<String> shortGrams(String normalized) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i < normalized.length(); i++) {
+            grams.add(normalized.substring(i, i + 1));
+            if (i + 2 <= normalized.length()) grams.add(normalized.substring(i, i + 2));
+        }
+        return grams;
+    }
+}
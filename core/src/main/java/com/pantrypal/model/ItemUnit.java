@@ -0,0 +1,29 @@
+package com.pantrypal.model;
+
+// Compact codes for the units AddActivity offers. Any other unit is kept as text under OTHER.
+public final class ItemUnit {
+
+    public static final int OTHER = 0;
+    public static final int PCS = 1;
+    public static final int KG = 2;
+    public static final int G = 3;
+    public static final int L = 4;
+    public static final int ML = 5;
+
+    private static final String[] NAMES = {null, "pcs", "kg", "g", "L", "ml"};
+
+    private ItemUnit() { }
+
+    public static int codeOf(String unit) {
+        if (unit == null) return OTHER;
+        for (int code = 1; code < NAMES.length; code++) {
+            if (NAMES[code].equalsIgnoreCase(unit)) return code;
+        }
+        return OTHER;
+    }
+
+    // Null for OTHER and unknown codes
+    public static String nameOf(int code) {
+        return code > 0 && code < NAMES.length ? NAMES[code] : null;
+    }
+}
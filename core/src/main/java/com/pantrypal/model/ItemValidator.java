@@ -0,0 +1,31 @@
+package com.pantrypal.model;
+
+// Input rules for a new item, shared by AddActivity and file imports. Each check returns the
+// message to show, or null when the value is fine.
+public final class ItemValidator {
+
+    private ItemValidator() { }
+
+    public static String nameError(String name) {
+        return name == null || name.trim().isEmpty() ? "Item name required" : null;
+    }
+
+    public static String quantityError(String quantity, String unit) {
+        if (quantity == null || quantity.trim().isEmpty()) return "Quantity required";
+
+        double value;
+        try {
+            value = Double.parseDouble(quantity.trim());
+        } catch (NumberFormatException e) {
+            return "Invalid number";
+        }
+        if (!(value > 0) || Double.isInfinite(value)) return "Must be > 0";
+        if ("pcs".equalsIgnoreCase(unit) && value % 1 != 0) return "Pieces must be whole numbers";
+        return null;
+    }
+
+    // AddActivity only offers the coded units
+    public static String unitError(String unit) {
+        return ItemUnit.codeOf(unit) == ItemUnit.OTHER ? "Unknown unit" : null;
+    }
+}
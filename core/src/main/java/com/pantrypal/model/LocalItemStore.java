@@ -0,0 +1,277 @@
+package com.pantrypal.model;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// On-device mirror of the "pantry" collection. MainActivity reads only from here;
+// Firestore snapshots are written in through syncItems() and applyChanges().
+public class LocalItemStore extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "pantry.db";
+    // v2: unit code and epoch-day columns instead of unit and ISO date strings
+    // v3: (user_id, expiry_day) index for the reminder queries
+    private static final int DATABASE_VERSION = 3;
+
+    private static final String TABLE_ITEMS = "items";
+    private static final String COL_DOCUMENT_ID = "document_id";
+    private static final String COL_USER_ID = "user_id";
+    private static final String COL_NAME = "name";
+    private static final String COL_QUANTITY = "quantity";
+    private static final String COL_UNIT_CODE = "unit_code";
+    // Only set for ItemUnit.OTHER
+    private static final String COL_UNIT = "unit";
+    private static final String COL_PURCHASE_DAY = "purchase_day";
+    private static final String COL_EXPIRY_DAY = "expiry_day";
+
+    private static final String[] ITEM_COLUMNS = {
+            COL_DOCUMENT_ID, COL_USER_ID, COL_NAME, COL_QUANTITY, COL_UNIT_CODE, COL_UNIT, COL_PURCHASE_DAY, COL_EXPIRY_DAY
+    };
+
+    private static LocalItemStore instance;
+
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public static synchronized LocalItemStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new LocalItemStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private LocalItemStore(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_ITEMS + " ("
+                + COL_DOCUMENT_ID + " TEXT PRIMARY KEY, "
+                + COL_USER_ID + " TEXT NOT NULL, "
+                + COL_NAME + " TEXT, "
+                + COL_QUANTITY + " REAL, "
+                + COL_UNIT_CODE + " INTEGER NOT NULL, "
+                + COL_UNIT + " TEXT, "
+                + COL_PURCHASE_DAY + " INTEGER, "
+                + COL_EXPIRY_DAY + " INTEGER)");
+        db.execSQL("CREATE INDEX idx_items_user ON " + TABLE_ITEMS + " (" + COL_USER_ID + ")");
+        createExpiryIndex(db);
+    }
+
+    private static void createExpiryIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE INDEX idx_items_user_expiry ON " + TABLE_ITEMS + " (" + COL_USER_ID + ", "
+                + COL_EXPIRY_DAY + ")");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion == 2) {
+            createExpiryIndex(db);
+            return;
+        }
+        // The store is a cache of Firestore, so it can always be rebuilt from the next sync
+        db.execSQL("DROP TABLE IF EXISTS " + TABLE_ITEMS);
+        onCreate(db);
+    }
+
+    // Read
+
+    public void loadItems(String userId, FirestoreManager.FirestoreCallback callback) {
+        diskExecutor.execute(() -> {
+            List<Item> items = queryItems(userId);
+            mainHandler.post(() -> callback.onCallback(items));
+        });
+    }
+
+    public interface ExpiryDayCallback {
+        void onExpiryDay(long expiryEpochDay);
+    }
+
+    // The earliest expiry day on or after fromEpochDay, or Item.NO_EXPIRY if nothing expires
+    // then. One index lookup, however large the pantry.
+    public void loadFirstExpiryDay(String userId, long fromEpochDay, ExpiryDayCallback callback) {
+        diskExecutor.execute(() -> {
+            long day = Item.NO_EXPIRY;
+            try (Cursor cursor = getReadableDatabase().rawQuery("SELECT MIN(" + COL_EXPIRY_DAY + ") FROM "
+                    + TABLE_ITEMS + " WHERE " + COL_USER_ID + " = ? AND " + COL_EXPIRY_DAY + " >= ?",
+                    new String[]{userId, String.valueOf(fromEpochDay)})) {
+                if (cursor.moveToFirst() && !cursor.isNull(0)) day = cursor.getLong(0);
+            } catch (Exception e) {
+                Log.e("LocalItemStore", "Error reading first expiry", e);
+            }
+            long firstDay = day;
+            mainHandler.post(() -> callback.onExpiryDay(firstDay));
+        });
+    }
+
+    public void loadItemsExpiringOn(String userId, long expiryEpochDay, FirestoreManager.FirestoreCallback callback) {
+        diskExecutor.execute(() -> {
+            List<Item> items = queryItems(COL_USER_ID + " = ? AND " + COL_EXPIRY_DAY + " = ?",
+                    userId, String.valueOf(expiryEpochDay));
+            mainHandler.post(() -> callback.onCallback(items));
+        });
+    }
+
+    private List<Item> queryItems(String userId) {
+        return queryItems(COL_USER_ID + " = ?", userId);
+    }
+
+    private List<Item> queryItems(String where, String... args) {
+        List<Item> items = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_ITEMS, ITEM_COLUMNS,
+                where, args, null, null, null)) {
+            while (cursor.moveToNext()) {
+                items.add(fromCursor(cursor));
+            }
+        } catch (Exception e) {
+            Log.e("LocalItemStore", "Error reading items", e);
+        }
+        return items;
+    }
+
+    // Sync
+
+    public void syncItems(String userId, List<Item> items, FirestoreManager.FirestoreCallback callback) {
+        diskExecutor.execute(() -> {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                db.delete(TABLE_ITEMS, COL_USER_ID + " = ?", new String[]{userId});
+                for (Item item : items) {
+                    db.insertWithOnConflict(TABLE_ITEMS, null, toContentValues(userId, item),
+                            SQLiteDatabase.CONFLICT_REPLACE);
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                Log.e("LocalItemStore", "Error syncing items", e);
+            } finally {
+                db.endTransaction();
+            }
+            if (callback != null) mainHandler.post(() -> callback.onCallback(items));
+        });
+    }
+
+    public void applyChanges(String userId, List<ItemChange> changes, FirestoreManager.ItemChangeCallback callback) {
+        diskExecutor.execute(() -> {
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                for (ItemChange change : changes) {
+                    Item item = change.getItem();
+                    if (change.getType() == ItemChange.Type.REMOVED) {
+                        db.delete(TABLE_ITEMS, COL_DOCUMENT_ID + " = ?", new String[]{item.getDocumentId()});
+                    } else {
+                        db.insertWithOnConflict(TABLE_ITEMS, null, toContentValues(userId, item),
+                                SQLiteDatabase.CONFLICT_REPLACE);
+                    }
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                Log.e("LocalItemStore", "Error applying changes", e);
+            } finally {
+                db.endTransaction();
+            }
+            if (callback != null) mainHandler.post(() -> callback.onChanges(changes, false));
+        });
+    }
+
+    // Deletes the user's rows inside a synced page range that the server no longer has there,
+    // and hands them back as REMOVED changes. Rows without an expiry are never in a page.
+    public void pruneRange(String userId, ItemPager.Range range, Set<String> keepIds,
+                           FirestoreManager.ItemChangeCallback callback) {
+        diskExecutor.execute(() -> {
+            StringBuilder where = new StringBuilder(COL_USER_ID + " = ? AND " + COL_EXPIRY_DAY + " IS NOT NULL");
+            List<String> args = new ArrayList<>();
+            args.add(userId);
+            if (range.fromDay != null) {
+                where.append(" AND (" + COL_EXPIRY_DAY + " > ? OR (" + COL_EXPIRY_DAY + " = ? AND "
+                        + COL_DOCUMENT_ID + " >= ?))");
+                args.add(String.valueOf(range.fromDay));
+                args.add(String.valueOf(range.fromDay));
+                args.add(range.fromId);
+            }
+            if (range.toDay != null) {
+                where.append(" AND (" + COL_EXPIRY_DAY + " < ? OR (" + COL_EXPIRY_DAY + " = ? AND "
+                        + COL_DOCUMENT_ID + (range.toInclusive ? " <= ?))" : " < ?))"));
+                args.add(String.valueOf(range.toDay));
+                args.add(String.valueOf(range.toDay));
+                args.add(range.toId);
+            }
+
+            List<ItemChange> removed = new ArrayList<>();
+            SQLiteDatabase db = getWritableDatabase();
+            db.beginTransaction();
+            try {
+                try (Cursor cursor = db.query(TABLE_ITEMS, ITEM_COLUMNS, where.toString(),
+                        args.toArray(new String[0]), null, null, null)) {
+                    while (cursor.moveToNext()) {
+                        if (!keepIds.contains(cursor.getString(0))) {
+                            removed.add(new ItemChange(ItemChange.Type.REMOVED, fromCursor(cursor)));
+                        }
+                    }
+                }
+                for (ItemChange change : removed) {
+                    db.delete(TABLE_ITEMS, COL_DOCUMENT_ID + " = ?", new String[]{change.getItem().getDocumentId()});
+                }
+                db.setTransactionSuccessful();
+            } catch (Exception e) {
+                Log.e("LocalItemStore", "Error pruning items", e);
+                removed.clear();
+            } finally {
+                db.endTransaction();
+            }
+            if (callback != null && !removed.isEmpty()) mainHandler.post(() -> callback.onChanges(removed, false));
+        });
+    }
+
+    // Clear
+
+    public void clearUser(String userId) {
+        diskExecutor.execute(() ->
+                getWritableDatabase().delete(TABLE_ITEMS, COL_USER_ID + " = ?", new String[]{userId}));
+    }
+
+    // Mapping
+
+    private static ContentValues toContentValues(String userId, Item item) {
+        ContentValues values = new ContentValues();
+        values.put(COL_DOCUMENT_ID, item.getDocumentId());
+        values.put(COL_USER_ID, userId);
+        values.put(COL_NAME, item.getName());
+        values.put(COL_QUANTITY, item.getQuantity());
+        values.put(COL_UNIT_CODE, item.getUnitCode());
+        if (item.getUnitCode() == ItemUnit.OTHER) values.put(COL_UNIT, item.getUnit());
+        if (item.getPurchaseEpochDay() != Item.NO_DATE) values.put(COL_PURCHASE_DAY, item.getPurchaseEpochDay());
+        if (item.getExpiryEpochDay() != Item.NO_EXPIRY) values.put(COL_EXPIRY_DAY, item.getExpiryEpochDay());
+        return values;
+    }
+
+    private static Item fromCursor(Cursor cursor) {
+        Item item = new Item();
+        item.setDocumentId(cursor.getString(0));
+        item.setUserId(cursor.getString(1));
+        item.setName(cursor.getString(2));
+        item.setQuantity(cursor.getDouble(3));
+        int unitCode = cursor.getInt(4);
+        if (unitCode != ItemUnit.OTHER) {
+            item.setUnitCode(unitCode);
+        } else {
+            item.setUnit(cursor.getString(5));
+        }
+        item.setPurchaseEpochDay(cursor.isNull(6) ? Item.NO_DATE : cursor.getLong(6));
+        item.setExpiryEpochDay(cursor.isNull(7) ? Item.NO_EXPIRY : cursor.getLong(7));
+        return item;
+    }
+}
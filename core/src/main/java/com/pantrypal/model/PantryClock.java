@@ -0,0 +1,87 @@
+package com.pantrypal.model;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// The date expiry logic runs on. Labels, buckets and reminders read "today" from here rather
+// than LocalDate.now(), so tests can pin the time and a pantry left open across midnight is
+// moved to the new day by a single event. Nothing checks the day by itself: PantryRepository
+// calls checkDay() at midnight and whenever the pantry becomes active again.
+public class PantryClock {
+
+    public interface DayListener {
+        void onDayChanged(long todayEpochDay);
+    }
+
+    private static PantryClock system;
+
+    private final List<DayListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile Clock clock;
+    private long announcedDay;
+
+    public static synchronized PantryClock system() {
+        if (system == null) {
+            system = new PantryClock(Clock.systemDefaultZone());
+        }
+        return system;
+    }
+
+    public PantryClock(Clock clock) {
+        this.clock = clock;
+        this.announcedDay = todayEpochDay();
+    }
+
+    // Time
+
+    public long todayEpochDay() {
+        return today().toEpochDay();
+    }
+
+    public LocalDate today() {
+        return LocalDate.now(clock);
+    }
+
+    public LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    // Until the next midnight in the clock's time zone
+    public long millisUntilNextDay() {
+        ZonedDateTime now = ZonedDateTime.now(clock);
+        ZonedDateTime nextDay = now.toLocalDate().plusDays(1).atStartOfDay(now.getZone());
+        return Math.max(0, Duration.between(now, nextDay).toMillis());
+    }
+
+    // Swaps the time source, e.g. a fixed clock in tests or the new zone after a time zone change
+    public void setClock(Clock clock) {
+        this.clock = clock;
+        checkDay();
+    }
+
+    // Day Changes
+
+    public void addDayListener(DayListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeDayListener(DayListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Tells the listeners, on the calling thread, if the date has moved (either way) since they
+    // last heard. Returns whether it had.
+    public boolean checkDay() {
+        long today = todayEpochDay();
+        synchronized (this) {
+            if (today == announcedDay) return false;
+            announcedDay = today;
+        }
+        for (DayListener listener : listeners) listener.onDayChanged(today);
+        return true;
+    }
+}
@@ -0,0 +1,146 @@
+package com.pantrypal.model;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Process-wide counters for FirestoreManager. Latencies are in microseconds, snapshot sizes in
+// documents. Everything is lock-free so it can stay on in release builds.
+public final class PantryMetrics {
+
+    public static final String ADD_ITEM = "add_item";
+    public static final String UPSERT_ITEM = "upsert_item";
+    public static final String DELETE_ITEM = "delete_item";
+    public static final String UPDATE_QUANTITY = "update_quantity";
+    public static final String INCREMENT_QUANTITY = "increment_quantity";
+    public static final String DELETE_BY_NAME = "delete_by_name";
+    public static final String DECREMENT_BY_NAME = "decrement_by_name";
+    public static final String SNAPSHOT_DECODE = "snapshot_decode";
+    public static final String SNAPSHOT_SIZE = "snapshot_size";
+    public static final String SNAPSHOT_CHANGES = "snapshot_changes";
+    public static final String WRITE_TO_LISTENER = "write_to_listener";
+
+    // Writes whose listener echo never arrives (offline, failed, or outside the paged window)
+    // must not pile up, nor match a much later snapshot
+    private static final int MAX_TRACKED_WRITES = 1024;
+    private static final long MAX_WRITE_AGE_MICROS = 60_000_000L;
+
+    private static final PantryMetrics INSTANCE = new PantryMetrics();
+
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> failures = new ConcurrentHashMap<>();
+    private final Map<String, Long> writeStartMicros = new ConcurrentHashMap<>();
+
+    public static PantryMetrics get() {
+        return INSTANCE;
+    }
+
+    private PantryMetrics() { }
+
+    static long nowMicros() {
+        return System.nanoTime() / 1000;
+    }
+
+    public Histogram histogram(String name) {
+        return histograms.computeIfAbsent(name, key -> new Histogram());
+    }
+
+    public long failures(String name) {
+        AtomicLong counter = failures.get(name);
+        return counter == null ? 0 : counter.get();
+    }
+
+    public void record(String name, long value) {
+        histogram(name).record(value);
+    }
+
+    void recordFailure(String name) {
+        failures.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+    }
+
+    // Operations
+
+    // Wraps a callback so the time until it fires is recorded under the operation's name
+    FirestoreManager.ActionCallback timed(String operation, FirestoreManager.ActionCallback callback) {
+        long start = nowMicros();
+        return new FirestoreManager.ActionCallback() {
+            @Override
+            public void onSuccess() {
+                record(operation, nowMicros() - start);
+                if (callback != null) callback.onSuccess();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                record(operation, nowMicros() - start);
+                recordFailure(operation);
+                if (callback != null) callback.onFailure(e);
+            }
+        };
+    }
+
+    // Write To Listener
+
+    void markWrite(String documentId) {
+        long now = nowMicros();
+        if (writeStartMicros.size() >= MAX_TRACKED_WRITES) evictWrites(now);
+        writeStartMicros.put(documentId, now);
+    }
+
+    // Called for each change a listener delivers after its first snapshot; only tracked writes
+    // are recorded. Initial snapshots list every document, so they would match stale marks.
+    void onListenerChange(String documentId) {
+        if (writeStartMicros.isEmpty()) return;
+        Long start = writeStartMicros.remove(documentId);
+        if (start == null) return;
+        long latency = nowMicros() - start;
+        if (latency <= MAX_WRITE_AGE_MICROS) record(WRITE_TO_LISTENER, latency);
+    }
+
+    // Drops marks too old to be echoed; if every mark is recent, the oldest one goes
+    private void evictWrites(long now) {
+        String oldestId = null;
+        long oldestStart = Long.MAX_VALUE;
+        for (Map.Entry<String, Long> entry : writeStartMicros.entrySet()) {
+            long start = entry.getValue();
+            if (now - start > MAX_WRITE_AGE_MICROS) {
+                writeStartMicros.remove(entry.getKey(), start);
+            } else if (start < oldestStart) {
+                oldestStart = start;
+                oldestId = entry.getKey();
+            }
+        }
+        if (oldestId != null && writeStartMicros.size() >= MAX_TRACKED_WRITES) {
+            writeStartMicros.remove(oldestId, oldestStart);
+        }
+    }
+
+    // Export
+
+    public void reset() {
+        for (Histogram histogram : histograms.values()) histogram.reset();
+        failures.clear();
+        writeStartMicros.clear();
+    }
+
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        boolean first = true;
+        for (Map.Entry<String, Histogram> entry : new TreeMap<>(histograms).entrySet()) {
+            Histogram histogram = entry.getValue();
+            if (!first) json.append(',');
+            first = false;
+            json.append("\n  \"").append(entry.getKey()).append("\": {")
+                    .append("\"count\": ").append(histogram.getCount())
+                    .append(", \"failures\": ").append(failures(entry.getKey()))
+                    .append(", \"mean\": ").append(histogram.getMean())
+                    .append(", \"p50\": ").append(histogram.percentile(0.50))
+                    .append(", \"p95\": ").append(histogram.percentile(0.95))
+                    .append(", \"p99\": ").append(histogram.percentile(0.99))
+                    .append(", \"max\": ").append(histogram.getMax())
+                    .append('}');
+        }
+        return json.append(first ? "}" : "\n}").toString();
+    }
+}
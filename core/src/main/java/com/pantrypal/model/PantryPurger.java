@@ -0,0 +1,122 @@
+package com.pantrypal.model;
+
+import com.google.firebase.firestore.AggregateSource;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.Source;
+import com.google.firebase.firestore.WriteBatch;
+
+import java.util.List;
+
+// Deletes every document a query matches, e.g. one user's pantry. Pages are read from the
+// server in document ID order and each page becomes one delete batch, with the next page read
+// while earlier batches are still committing. Deleted documents drop out of the query, so a
+// pass that hit errors is resumed by reading from the start again. All callbacks arrive on the
+// main thread.
+class PantryPurger {
+
+    private static final int PAGE_SIZE = BulkWriter.MAX_BATCH_SIZE;
+    private static final int MAX_PASSES = 3;
+
+    private final Query query;
+    private final FirebaseFirestore db;
+    private final FirestoreManager.PurgeCallback callback;
+
+    private DocumentSnapshot cursor;
+    private boolean reading;
+    private boolean exhausted;
+    private int inFlight;
+    private int pass = 1;
+    private int deleted;
+    private int total;
+    private int failedBatches;
+    private Exception lastError;
+    private boolean finished;
+
+    PantryPurger(FirebaseFirestore db, Query documents, FirestoreManager.PurgeCallback callback) {
+        this.db = db;
+        this.callback = callback;
+        this.query = documents.orderBy(FieldPath.documentId());
+    }
+
+    void start() {
+        // The count only drives the progress display, so a failed count doesn't stop the purge
+        query.count().get(AggregateSource.SERVER).addOnCompleteListener(task -> {
+            if (task.isSuccessful()) total = (int) task.getResult().getCount();
+            callback.onProgress(0, total);
+            readNextPage();
+        });
+    }
+
+    private void readNextPage() {
+        if (reading || exhausted || inFlight >= BulkWriter.MAX_BATCHES_IN_FLIGHT) return;
+
+        Query page = query.limit(PAGE_SIZE);
+        if (cursor != null) page = page.startAfter(cursor);
+
+        reading = true;
+        // Server only: the cache may still hold documents that were already deleted
+        page.get(Source.SERVER).addOnCompleteListener(task -> {
+            reading = false;
+
+            if (!task.isSuccessful()) {
+                // Whatever is left gets picked up by the next pass
+                lastError = task.getException();
+                failedBatches++;
+                exhausted = true;
+                maybeFinish();
+                return;
+            }
+
+            List<DocumentSnapshot> documents = task.getResult().getDocuments();
+            if (documents.size() < PAGE_SIZE) exhausted = true;
+            if (!documents.isEmpty()) {
+                cursor = documents.get(documents.size() - 1);
+                deleteBatch(documents);
+            }
+
+            readNextPage();
+            maybeFinish();
+        });
+    }
+
+    private void deleteBatch(List<DocumentSnapshot> documents) {
+        WriteBatch batch = db.batch();
+        for (DocumentSnapshot document : documents) batch.delete(document.getReference());
+
+        inFlight++;
+        batch.commit().addOnCompleteListener(task -> {
+            inFlight--;
+            if (task.isSuccessful()) {
+                deleted += documents.size();
+                callback.onProgress(deleted, Math.max(total, deleted));
+            } else {
+                lastError = task.getException();
+                failedBatches++;
+            }
+
+            readNextPage();
+            maybeFinish();
+        });
+    }
+
+    private void maybeFinish() {
+        if (finished || !exhausted || reading || inFlight > 0) return;
+
+        if (failedBatches == 0) {
+            finished = true;
+            callback.onSuccess();
+        } else if (pass < MAX_PASSES) {
+            pass++;
+            failedBatches = 0;
+            cursor = null;
+            exhausted = false;
+            readNextPage();
+        } else {
+            finished = true;
+            callback.onFailure(new Exception("Could not delete all pantry items", lastError));
+        }
+    }
+}
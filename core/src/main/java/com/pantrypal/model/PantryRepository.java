@@ -0,0 +1,575 @@
+package com.pantrypal.model;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import androidx.lifecycle.LiveData;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Process-wide pantry hub. One listener per signed-in user is shared by every observer of
+// getItems(); it starts with the first active observer and stops only after the last one has
+// been gone for the grace period, so hopping between screens re-downloads nothing.
+public class PantryRepository {
+
+    // Pantries this large (by the local cache) are listened to page by page
+    private static final int LARGE_PANTRY_THRESHOLD = 1000;
+    private static final int PAGE_SIZE = 50;
+    private static final long DEFAULT_GRACE_PERIOD_MS = 60_000;
+    // Server summaries are reused for this long, since paged lists emit on every window change
+    private static final long SUMMARY_MAX_AGE_MS = 60_000;
+    private static final String PREFS_NAME = "pantry_household";
+    private static final String KEY_HOUSEHOLD = "household_";
+
+    // Soonest expiry first; document ID breaks ties so rows can be found by binary search
+    public static final Comparator<Item> LIST_ORDER = (i1, i2) -> {
+        int byExpiry = Item.EXPIRY_ORDER.compare(i1, i2);
+        return byExpiry != 0 ? byExpiry : i1.getDocumentId().compareTo(i2.getDocumentId());
+    };
+
+    private static PantryRepository instance;
+
+    private final FirestoreManager firestoreManager = new FirestoreManager();
+    private final QuantityWriteBuffer quantityBuffer = new QuantityWriteBuffer(firestoreManager);
+    private final Context context;
+    private final LocalItemStore localStore;
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+    private final PantryClock clock = PantryClock.system();
+    private final Runnable dayTick = this::checkDay;
+    private boolean dayTicking;
+    // Owns searchIndex: index updates and queries are serialized here, off the main thread
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
+    private final ItemSearchIndex searchIndex = new ItemSearchIndex();
+    private long gracePeriodMillis = DEFAULT_GRACE_PERIOD_MS;
+    private PantryLiveData pantry;
+    // Set while this user's legacy documents are being moved into their household
+    private String migratingUserId;
+    private PantrySummary serverSummary;
+    private String serverSummaryUserId;
+    private long serverSummaryAt;
+
+    public static synchronized PantryRepository getInstance(Context context) {
+        if (instance == null) {
+            instance = new PantryRepository(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private PantryRepository(Context context) {
+        this.context = context;
+        localStore = LocalItemStore.getInstance(context);
+
+        // Server aggregates were bucketed on the day they were asked for
+        clock.addDayListener(today -> serverSummary = null);
+
+        // The midnight tick was worked out for the old wall clock
+        IntentFilter filter = new IntentFilter(Intent.ACTION_TIME_CHANGED);
+        filter.addAction(Intent.ACTION_TIMEZONE_CHANGED);
+        context.registerReceiver(new BroadcastReceiver() {
+            @Override
+            public void onReceive(Context context, Intent intent) {
+                clock.setClock(Clock.systemDefaultZone());
+                if (dayTicking) checkDay();
+            }
+        }, filter);
+    }
+
+    // Access
+
+    public LiveData<List<Item>> getItems(String userId) {
+        if (pantry == null || !pantry.userId.equals(userId)) {
+            clear();
+            pantry = new PantryLiveData(userId);
+            selectHousehold(userId);
+        }
+        return pantry;
+    }
+
+    // Writes should go through this manager so name lookups use the shared listener's index
+    public FirestoreManager getFirestoreManager() {
+        return firestoreManager;
+    }
+
+    public PantryClock getClock() {
+        return clock;
+    }
+
+    public void setGracePeriodMillis(long gracePeriodMillis) {
+        this.gracePeriodMillis = gracePeriodMillis;
+    }
+
+    public void onVisibleRangeChanged(int first, int last) {
+        if (pantry != null && pantry.pager != null) pantry.pager.onVisibleRangeChanged(first, last);
+    }
+
+    // Household
+
+    // Until the user's legacy documents have moved, reads and writes stay on the legacy
+    // collection; afterwards the last known household is used while the current one is looked up.
+    // The migration deletes each legacy document it moves, so while it runs the legacy listener
+    // holds back removals and the list keeps showing the legacy pantry until the household
+    // listener takes over.
+    private void selectHousehold(String userId) {
+        if (!firestoreManager.isHouseholdMigrated(context, userId)) {
+            firestoreManager.useHousehold(null);
+            migratingUserId = userId;
+            firestoreManager.startHouseholdMigration(context, userId, new FirestoreManager.ActionCallback() {
+                @Override
+                public void onSuccess() {
+                    if (userId.equals(migratingUserId)) migratingUserId = null;
+                    switchHousehold(userId, userId);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    // Stays on the legacy collection; the migration resumes on the next sign-in
+                    if (!userId.equals(migratingUserId)) return;
+                    migratingUserId = null;
+                    // A fresh legacy listener drops what the held-back removals would have
+                    if (pantry != null && pantry.userId.equals(userId) && pantry.running) {
+                        pantry.stop();
+                        pantry.start();
+                    }
+                }
+            });
+            return;
+        }
+
+        firestoreManager.useHousehold(householdPrefs().getString(KEY_HOUSEHOLD + userId, userId));
+        firestoreManager.findHousehold(userId, new FirestoreManager.HouseholdCallback() {
+            @Override
+            public void onHousehold(String householdId) {
+                switchHousehold(userId, householdId);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                // Stays on the last known household
+            }
+        });
+    }
+
+    // Joins another household with an invite code from one of its members and moves the shared
+    // pantry over to it
+    public void joinHousehold(String userId, String householdId, String joinCode,
+                              FirestoreManager.ActionCallback callback) {
+        firestoreManager.joinHousehold(householdId, joinCode, userId, new FirestoreManager.ActionCallback() {
+            @Override
+            public void onSuccess() {
+                switchHousehold(userId, householdId);
+                if (callback != null) callback.onSuccess();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                if (callback != null) callback.onFailure(e);
+            }
+        });
+    }
+
+    // A join code for the household the user is in; see FirestoreManager.createHouseholdInvite
+    public void createHouseholdInvite(String userId, FirestoreManager.InviteCallback callback) {
+        String household = firestoreManager.getHouseholdId();
+        firestoreManager.createHouseholdInvite(household != null ? household : userId, userId, callback);
+    }
+
+    private void switchHousehold(String userId, String householdId) {
+        if (pantry == null || !pantry.userId.equals(userId)) return;
+        householdPrefs().edit().putString(KEY_HOUSEHOLD + userId, householdId).apply();
+        if (householdId.equals(firestoreManager.getHouseholdId())) return;
+
+        firestoreManager.useHousehold(householdId);
+        if (pantry.running) {
+            pantry.stop();
+            pantry.start();
+        }
+    }
+
+    private SharedPreferences householdPrefs() {
+        return context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    // Mutations
+
+    // Both show on the list straight away, marked pending. The listener then confirms the write
+    // (clearing the mark) or, if the server rejects it, delivers Firestore's local rollback.
+    public void addItem(Item item, FirestoreManager.ActionCallback callback) {
+        if (isShowing(item.getUserId())) {
+            // Same lot as upsertItem writes to, so a re-add shows as a larger quantity
+            String documentId = firestoreManager.lotDocument(item).getId();
+            Item existing = pantry.itemsById.get(documentId);
+            Item shown = item.copy();
+            shown.setDocumentId(documentId);
+            shown.setPendingWrite(true);
+            if (existing != null) shown.setQuantity(existing.getQuantity() + item.getQuantity());
+            pantry.patchLocal(Collections.singletonList(new ItemChange(
+                    existing != null ? ItemChange.Type.MODIFIED : ItemChange.Type.ADDED, shown)));
+        }
+        firestoreManager.upsertItem(item, callback);
+    }
+
+    public void deleteItem(Item item, FirestoreManager.ActionCallback callback) {
+        PantryLiveData shownIn = pantry;
+        boolean listed = pantry != null && pantry.running && pantry.itemsById.containsKey(item.getDocumentId());
+        boolean pagedOut = !listed && pantry != null && pantry.running && pantry.pager != null;
+        if (listed) {
+            pantry.patchLocal(Collections.singletonList(new ItemChange(ItemChange.Type.REMOVED, item)));
+        } else if (pagedOut) {
+            pantry.patchPagedOut(Collections.singletonList(new ItemChange(ItemChange.Type.REMOVED, item)));
+        }
+        firestoreManager.deleteItem(item.getDocumentId(), new FirestoreManager.ActionCallback() {
+            @Override
+            public void onSuccess() {
+                if (callback != null) callback.onSuccess();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                // Normally the listener has already restored it; this covers a stopped listener
+                // and items outside the paged window, which no listener covers
+                if (pantry == shownIn && shownIn != null && pagedOut) {
+                    shownIn.patchPagedOut(Collections.singletonList(new ItemChange(ItemChange.Type.ADDED, item)));
+                } else if (pantry == shownIn && shownIn != null && !shownIn.itemsById.containsKey(item.getDocumentId())) {
+                    shownIn.patchLocal(Collections.singletonList(new ItemChange(ItemChange.Type.ADDED, item)));
+                }
+                if (callback != null) callback.onFailure(e);
+            }
+        });
+    }
+
+    private boolean isShowing(String userId) {
+        return pantry != null && pantry.running && pantry.userId.equals(userId);
+    }
+
+    // Quantity
+
+    // Shows the new quantity right away; the write itself is debounced and coalesced with any
+    // further taps on the same row. Taps that would take the quantity below zero are ignored.
+    public void adjustQuantity(Item item, double delta) {
+        if (pantry == null) return;
+        Item current = pantry.itemsById.get(item.getDocumentId());
+        if (current == null && pantry.running && pantry.pager != null) {
+            adjustPagedOutQuantity(item, delta);
+            return;
+        }
+        if (current == null || current.getQuantity() + delta < 0) return;
+
+        quantityBuffer.add(item.getDocumentId(), delta);
+
+        Item adjusted = current.copy();
+        adjusted.setQuantity(current.getQuantity() + delta);
+        adjusted.setPendingWrite(true);
+        List<ItemChange> changes = new ArrayList<>();
+        changes.add(new ItemChange(ItemChange.Type.MODIFIED, adjusted));
+        pantry.patchLocal(changes);
+    }
+
+    // Day Changes
+
+    // While the pantry is observed the clock is checked at every midnight, and once more when
+    // observers come back (the tick is late if the device slept through midnight). Nothing is
+    // reloaded on a new day: the list is ordered by expiry date, which does not change, and
+    // day-relative labels and buckets are re-derived from the cached epoch days.
+    private void startDayTicks() {
+        dayTicking = true;
+        checkDay();
+    }
+
+    private void stopDayTicks() {
+        dayTicking = false;
+        mainHandler.removeCallbacks(dayTick);
+    }
+
+    private void checkDay() {
+        mainHandler.removeCallbacks(dayTick);
+        clock.checkDay();
+        if (dayTicking) mainHandler.postDelayed(dayTick, clock.millisUntilNextDay());
+    }
+
+    // Search can surface items outside the loaded window. Their writes still go through the
+    // buffer; the new quantity goes to the local store and the index instead of the list.
+    private void adjustPagedOutQuantity(Item item, double delta) {
+        if (item.getQuantity() + delta < 0) return;
+        quantityBuffer.add(item.getDocumentId(), delta);
+
+        Item adjusted = item.copy();
+        adjusted.setQuantity(item.getQuantity() + delta);
+        pantry.patchPagedOut(Collections.singletonList(new ItemChange(ItemChange.Type.MODIFIED, adjusted)));
+    }
+
+    // Summary
+
+    // Computed from memory while the whole pantry is loaded; paged pantries only hold a window,
+    // so those ask the server for aggregates instead. Delivers on the main thread.
+    public void loadSummary(String userId, FirestoreManager.SummaryCallback callback) {
+        long today = clock.todayEpochDay();
+        if (pantry != null && pantry.userId.equals(userId) && pantry.running && pantry.pager == null) {
+            callback.onSummary(pantry.summaryOn(today));
+            return;
+        }
+
+        long now = SystemClock.elapsedRealtime();
+        if (serverSummary != null && userId.equals(serverSummaryUserId) && now - serverSummaryAt < SUMMARY_MAX_AGE_MS) {
+            callback.onSummary(serverSummary);
+            return;
+        }
+
+        firestoreManager.loadSummary(userId, today, new FirestoreManager.SummaryCallback() {
+            @Override
+            public void onSummary(PantrySummary summary) {
+                serverSummary = summary;
+                serverSummaryUserId = userId;
+                serverSummaryAt = now;
+                callback.onSummary(summary);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+        });
+    }
+
+    // Search
+
+    // Items whose name contains the query, in list order. The index holds the whole local
+    // pantry, including what a paged list has not loaded yet. Delivers on the main thread.
+    public void search(String query, FirestoreManager.FirestoreCallback callback) {
+        searchExecutor.execute(() -> {
+            List<Item> results = searchIndex.search(query);
+            Collections.sort(results, LIST_ORDER);
+            mainHandler.post(() -> callback.onCallback(results));
+        });
+    }
+
+    // Sends +/- taps still waiting out the debounce now, e.g. when the app goes to the
+    // background and may be killed before the debounce fires
+    public void flushPendingWrites() {
+        quantityBuffer.flushAll();
+    }
+
+    // Drops the shared listener and cached list, e.g. on sign-out. Buffered taps go out first,
+    // while the user is still signed in.
+    public void clear() {
+        flushPendingWrites();
+        if (migratingUserId != null) {
+            firestoreManager.cancelHouseholdMigration(migratingUserId, () -> { });
+            migratingUserId = null;
+        }
+        if (pantry != null) {
+            pantry.stop();
+            pantry = null;
+            StartupSnapshot.clear(context);
+        }
+        serverSummary = null;
+        searchExecutor.execute(() -> searchIndex.replaceAll(new ArrayList<>()));
+    }
+
+    // Shared Pantry
+
+    private class PantryLiveData extends LiveData<List<Item>> {
+
+        private final String userId;
+        private final List<Item> itemList = new ArrayList<>();
+        private final Map<String, Item> itemsById = new HashMap<>();
+        private final Runnable stopRunnable = this::stop;
+        private boolean running;
+        private ItemPager pager;
+        // Kept until the list changes; a new day only moves items between its buckets
+        private PantrySummary summary;
+        private long summaryDay;
+
+        PantryLiveData(String userId) {
+            this.userId = userId;
+        }
+
+        @Override
+        protected void onActive() {
+            mainHandler.removeCallbacks(stopRunnable);
+            if (!running) start();
+            startDayTicks();
+        }
+
+        @Override
+        protected void onInactive() {
+            stopDayTicks();
+            mainHandler.postDelayed(stopRunnable, gracePeriodMillis);
+        }
+
+        private void start() {
+            running = true;
+
+            // First paint comes from disk; Firestore only feeds the local store
+            localStore.loadItems(userId, list -> {
+                if (!running) return;
+
+                // The paged query orders by v2 fields, which only household documents are sure to have
+                if (list.size() >= LARGE_PANTRY_THRESHOLD && firestoreManager.getHouseholdId() != null) {
+                    // Only the first page is shown, but search covers the whole local pantry
+                    Collections.sort(list, LIST_ORDER);
+                    List<Item> indexed = new ArrayList<>(list);
+                    searchExecutor.execute(() -> searchIndex.replaceAll(indexed));
+                    // Started first so the window is never published with pager unset, which
+                    // would have loadSummary count the window instead of asking the server
+                    startPagedListener();
+                    showItems(new ArrayList<>(list.subList(0, PAGE_SIZE)), false);
+                } else {
+                    showItems(list, true);
+                    startFullListener();
+                }
+            });
+        }
+
+        void stop() {
+            mainHandler.removeCallbacks(stopRunnable);
+            if (!running) return;
+            running = false;
+            pager = null;
+            quantityBuffer.flushAll();
+            if (pantry == this) firestoreManager.stopListening();
+        }
+
+        private void startFullListener() {
+            boolean migrating = userId.equals(migratingUserId);
+            firestoreManager.startListeningForItemChanges(userId, (changes, fullSnapshot) -> {
+                if (migrating) {
+                    // Moved documents disappear from the legacy collection; keep them listed
+                    List<ItemChange> kept = new ArrayList<>(changes.size());
+                    for (ItemChange change : changes) {
+                        if (change.getType() != ItemChange.Type.REMOVED) kept.add(change);
+                    }
+                    localStore.applyChanges(userId, kept, (applied, full) -> patchItems(applied));
+                } else if (fullSnapshot) {
+                    localStore.syncItems(userId, itemsOf(changes), list -> showItems(list, true));
+                } else {
+                    localStore.applyChanges(userId, changes, (applied, full) -> patchItems(applied));
+                }
+            });
+        }
+
+        private void startPagedListener() {
+            // Only the loaded window is shown, so the local store (and with it the search index)
+            // is updated rather than replaced
+            pager = firestoreManager.startPagingItems(userId, PAGE_SIZE, (changes, fullSnapshot) ->
+                    localStore.applyChanges(userId, changes, (applied, full) -> {
+                        if (fullSnapshot) {
+                            searchExecutor.execute(() -> searchIndex.apply(applied));
+                            showItems(itemsOf(applied), false);
+                        } else {
+                            patchItems(applied);
+                        }
+                    }));
+            // Deletions made outside the window never reach a page listener; a page's first
+            // server snapshot drops them from the store
+            pager.setPageSyncListener((range, documentIds) ->
+                    localStore.pruneRange(userId, range, documentIds, (removed, full) -> patchItems(removed)));
+        }
+
+        // wholePantry is false for a paged window, which must not replace the search index
+        private void showItems(List<Item> list, boolean wholePantry) {
+            if (!running) return;
+            for (int i = 0; i < list.size(); i++) list.set(i, withPendingQuantity(list.get(i)));
+
+            itemList.clear();
+            itemsById.clear();
+
+            Collections.sort(list, LIST_ORDER);
+            itemList.addAll(list);
+            for (Item item : list) itemsById.put(item.getDocumentId(), item);
+
+            if (wholePantry) {
+                List<Item> indexed = new ArrayList<>(list);
+                searchExecutor.execute(() -> searchIndex.replaceAll(indexed));
+            }
+
+            publish();
+        }
+
+        private void patchItems(List<ItemChange> changes) {
+            if (!running) return;
+            List<ItemChange> overlaid = new ArrayList<>(changes.size());
+            for (ItemChange change : changes) {
+                overlaid.add(change.getType() == ItemChange.Type.REMOVED ? change
+                        : new ItemChange(change.getType(), withPendingQuantity(change.getItem())));
+            }
+            patchLocal(overlaid);
+        }
+
+        void patchLocal(List<ItemChange> changes) {
+            if (!running) return;
+            for (ItemChange change : changes) {
+                Item item = change.getItem();
+                Item existing = itemsById.remove(item.getDocumentId());
+                if (existing != null) {
+                    int index = Collections.binarySearch(itemList, existing, LIST_ORDER);
+                    if (index >= 0) itemList.remove(index);
+                }
+
+                if (change.getType() != ItemChange.Type.REMOVED) {
+                    int index = Collections.binarySearch(itemList, item, LIST_ORDER);
+                    itemList.add(index < 0 ? -(index + 1) : index, item);
+                    itemsById.put(item.getDocumentId(), item);
+                }
+            }
+
+            searchExecutor.execute(() -> searchIndex.apply(changes));
+
+            publish();
+        }
+
+        // For items outside the paged window: the store and index take the change and observers
+        // are re-notified so search results refresh; the list itself is untouched
+        void patchPagedOut(List<ItemChange> changes) {
+            if (!running) return;
+            localStore.applyChanges(userId, changes, null);
+            searchExecutor.execute(() -> searchIndex.apply(changes));
+            publish();
+        }
+
+        // Server snapshots don't know about taps still waiting in the write buffer
+        private Item withPendingQuantity(Item item) {
+            double pending = quantityBuffer.pendingDelta(item.getDocumentId());
+            if (pending == 0) return item;
+            Item adjusted = item.copy();
+            adjusted.setQuantity(item.getQuantity() + pending);
+            adjusted.setPendingWrite(true);
+            return adjusted;
+        }
+
+        PantrySummary summaryOn(long today) {
+            if (summary == null) {
+                summary = PantrySummary.of(itemList, today);
+            } else if (summaryDay != today) {
+                summary = summary.onDay(itemList, today);
+            }
+            summaryDay = today;
+            return summary;
+        }
+
+        // Observers get their own copy; the adapter diffs it against the previous one
+        private void publish() {
+            summary = null;
+            setValue(Collections.unmodifiableList(new ArrayList<>(itemList)));
+        }
+    }
+
+    private static List<Item> itemsOf(List<ItemChange> changes) {
+        List<Item> list = new ArrayList<>(changes.size());
+        for (ItemChange change : changes) list.add(change.getItem());
+        return list;
+    }
+}
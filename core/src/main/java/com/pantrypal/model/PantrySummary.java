@@ -0,0 +1,86 @@
+package com.pantrypal.model;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Counts for a pantry overview: total items, the expiry buckets the list colors by, and the
+// quantity held per unit code. Items without an expiry date only count towards the total.
+public class PantrySummary {
+
+    static final int WEEK_DAYS = 7;
+
+    private final long totalItems;
+    private final long expired;
+    private final long expiringToday;
+    // Tomorrow through a week from today
+    private final long expiringThisWeek;
+    private final Map<Integer, Double> quantityByUnit;
+
+    PantrySummary(long totalItems, long expired, long expiringToday, long expiringThisWeek,
+                  Map<Integer, Double> quantityByUnit) {
+        this.totalItems = totalItems;
+        this.expired = expired;
+        this.expiringToday = expiringToday;
+        this.expiringThisWeek = expiringThisWeek;
+        Map<Integer, Double> held = new TreeMap<>(quantityByUnit);
+        held.values().removeIf(total -> total == 0);
+        this.quantityByUnit = Collections.unmodifiableMap(held);
+    }
+
+    // Same numbers from items already in memory
+    public static PantrySummary of(List<Item> items, long todayEpochDay) {
+        long expired = 0, today = 0, week = 0;
+        Map<Integer, Double> quantityByUnit = new TreeMap<>();
+        for (Item item : items) {
+            long expiry = item.getExpiryEpochDay();
+            if (expiry != Item.NO_EXPIRY) {
+                long days = expiry - todayEpochDay;
+                if (days < 0) {
+                    expired++;
+                } else if (days == 0) {
+                    today++;
+                } else if (days <= WEEK_DAYS) {
+                    week++;
+                }
+            }
+            Double total = quantityByUnit.get(item.getUnitCode());
+            quantityByUnit.put(item.getUnitCode(), (total != null ? total : 0) + item.getQuantity());
+        }
+        return new PantrySummary(items.size(), expired, today, week, quantityByUnit);
+    }
+
+    // The same pantry on another day. Items sorted by expiry date (LIST_ORDER is) only move
+    // between buckets, so the counts come from binary searches instead of a scan.
+    public PantrySummary onDay(List<Item> itemsByExpiry, long todayEpochDay) {
+        int today = firstExpiringOn(itemsByExpiry, todayEpochDay);
+        int tomorrow = firstExpiringOn(itemsByExpiry, todayEpochDay + 1);
+        int afterWeek = firstExpiringOn(itemsByExpiry, todayEpochDay + WEEK_DAYS + 1);
+        return new PantrySummary(totalItems, today, tomorrow - today, afterWeek - tomorrow, quantityByUnit);
+    }
+
+    // Index of the first item expiring on or after the day; items without an expiry sort last
+    static int firstExpiringOn(List<Item> itemsByExpiry, long epochDay) {
+        int low = 0;
+        int high = itemsByExpiry.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (itemsByExpiry.get(mid).getExpiryEpochDay() < epochDay) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    public long getTotalItems() { return totalItems; }
+    public long getExpired() { return expired; }
+    public long getExpiringToday() { return expiringToday; }
+    public long getExpiringThisWeek() { return expiringThisWeek; }
+
+    // Unit code (see ItemUnit) -> summed quantity, units with nothing left omitted. OTHER lumps
+    // every free-text unit together.
+    public Map<Integer, Double> getQuantityByUnit() { return quantityByUnit; }
+}
@@ -0,0 +1,215 @@
+package com.pantrypal.model;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.OpenableColumns;
+
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.io.BufferedWriter;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Import and export of the pantry through Storage Access Framework URIs. Files are streamed
+// on a background thread: imports hold at most a few chunks of items at once and exports one
+// page, whatever the file size. All callbacks arrive on the main thread.
+public final class PantryTransfer {
+
+    private static final int CHUNK_SIZE = BulkWriter.MAX_BATCH_SIZE;
+    // Reading pauses while this many chunks are still committing
+    private static final int MAX_CHUNKS_IN_FLIGHT = BulkWriter.MAX_BATCHES_IN_FLIGHT;
+    private static final int MAX_REPORTED_ROW_ERRORS = 100;
+
+    private static final ExecutorService IO_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private PantryTransfer() { }
+
+    // JSON by MIME type or file extension, CSV otherwise
+    public static ItemRecords.Format formatOf(Context context, Uri uri) {
+        ContentResolver resolver = context.getContentResolver();
+        String type = resolver.getType(uri);
+        if (type != null && type.contains("json")) return ItemRecords.Format.JSON;
+
+        try (Cursor cursor = resolver.query(uri, new String[]{OpenableColumns.DISPLAY_NAME}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst()) {
+                String name = cursor.getString(0);
+                if (name != null && name.toLowerCase(Locale.ROOT).endsWith(".json")) return ItemRecords.Format.JSON;
+            }
+        } catch (RuntimeException e) {
+            // Fall back to CSV
+        }
+        return ItemRecords.Format.CSV;
+    }
+
+    // Import
+
+    // Valid rows are added in batches through FirestoreManager; invalid ones are reported and
+    // skipped. Rows land on their lot, so a row matching an existing lot (or another row) adds
+    // to its quantity. A failed batch stops the import, and the batches before it stay committed.
+    public static void importItems(Context context, Uri uri, ItemRecords.Format format, String userId,
+                                   FirestoreManager manager, FirestoreManager.TransferCallback callback) {
+        ContentResolver resolver = context.getApplicationContext().getContentResolver();
+        IO_EXECUTOR.execute(() -> new ImportRun(manager, userId, callback).run(resolver, uri, format));
+    }
+
+    private static class ImportRun {
+        private final FirestoreManager manager;
+        private final String userId;
+        private final FirestoreManager.TransferCallback callback;
+        private final Semaphore slots = new Semaphore(MAX_CHUNKS_IN_FLIGHT);
+        private final AtomicInteger imported = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private volatile Exception writeError;
+
+        ImportRun(FirestoreManager manager, String userId, FirestoreManager.TransferCallback callback) {
+            this.manager = manager;
+            this.userId = userId;
+            this.callback = callback;
+        }
+
+        void run(ContentResolver resolver, Uri uri, ItemRecords.Format format) {
+            Exception error = null;
+            try (InputStream in = resolver.openInputStream(uri)) {
+                if (in == null) throw new FileNotFoundException(uri.toString());
+                try (ItemRecords.Source source = ItemRecords.source(format,
+                        new InputStreamReader(in, StandardCharsets.UTF_8))) {
+                    readAll(source);
+                }
+            } catch (Exception e) {
+                // Malformed JSON surfaces as IOException or IllegalStateException
+                error = e;
+            }
+
+            // Let the last chunks settle before reporting
+            slots.acquireUninterruptibly(MAX_CHUNKS_IN_FLIGHT);
+            Exception failure = error != null ? error : writeError;
+            FirestoreManager.MAIN_HANDLER.post(() -> {
+                callback.onProgress(imported.get(), skipped.get());
+                if (failure != null) {
+                    callback.onFailure(failure);
+                } else {
+                    callback.onSuccess();
+                }
+            });
+        }
+
+        private void readAll(ItemRecords.Source source) throws Exception {
+            LocalDate today = PantryClock.system().today();
+            List<Item> chunk = new ArrayList<>(CHUNK_SIZE);
+            ItemRecords.Row row;
+            while (writeError == null && (row = source.next()) != null) {
+                String message = row.validate();
+                if (message != null) {
+                    int count = skipped.incrementAndGet();
+                    int line = row.getLine();
+                    if (count <= MAX_REPORTED_ROW_ERRORS) {
+                        FirestoreManager.MAIN_HANDLER.post(() -> callback.onRowError(line, message));
+                    }
+                    continue;
+                }
+
+                chunk.add(row.toItem(userId, today));
+                if (chunk.size() == CHUNK_SIZE) {
+                    commit(chunk);
+                    chunk = new ArrayList<>(CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty() && writeError == null) commit(chunk);
+        }
+
+        private void commit(List<Item> chunk) throws InterruptedException {
+            slots.acquire();
+            FirestoreManager.MAIN_HANDLER.post(() -> manager.bulkWrite(chunk, null, null,
+                    new FirestoreManager.BulkWriteCallback() {
+                        @Override
+                        public void onProgress(int completed, int total) { }
+
+                        @Override
+                        public void onItemFailure(String documentId, Exception e) { }
+
+                        @Override
+                        public void onSuccess() {
+                            callback.onProgress(imported.addAndGet(chunk.size()), skipped.get());
+                            slots.release();
+                        }
+
+                        @Override
+                        public void onFailure(Exception e) {
+                            writeError = e;
+                            slots.release();
+                        }
+                    }));
+        }
+    }
+
+    // Export
+
+    // Writes the pantry as it is on the server, one page at a time in document ID order
+    public static void exportItems(Context context, Uri uri, ItemRecords.Format format, String userId,
+                                   FirestoreManager manager, FirestoreManager.TransferCallback callback) {
+        ContentResolver resolver = context.getApplicationContext().getContentResolver();
+        Query query = manager.itemsOf(userId).orderBy(FieldPath.documentId()).limit(CHUNK_SIZE);
+
+        IO_EXECUTOR.execute(() -> {
+            Exception failure = null;
+            try (OutputStream out = resolver.openOutputStream(uri, "wt")) {
+                if (out == null) throw new FileNotFoundException(uri.toString());
+                try (ItemRecords.Sink sink = ItemRecords.sink(format,
+                        new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)))) {
+                    writeAll(query, sink, callback);
+                }
+            } catch (Exception e) {
+                failure = e;
+            }
+
+            Exception error = failure;
+            FirestoreManager.MAIN_HANDLER.post(() -> {
+                if (error != null) {
+                    callback.onFailure(error);
+                } else {
+                    callback.onSuccess();
+                }
+            });
+        });
+    }
+
+    private static void writeAll(Query query, ItemRecords.Sink sink, FirestoreManager.TransferCallback callback)
+            throws Exception {
+        DocumentSnapshot last = null;
+        int exported = 0;
+        while (true) {
+            // Blocking is fine here: this runs on IO_EXECUTOR
+            QuerySnapshot page = Tasks.await(last == null ? query.get() : query.startAfter(last).get());
+            List<DocumentSnapshot> documents = page.getDocuments();
+            for (DocumentSnapshot document : documents) {
+                Item item = ItemCodec.fromDocument(document);
+                if (item == null) continue;
+                sink.write(item);
+                exported++;
+            }
+
+            int progress = exported;
+            FirestoreManager.MAIN_HANDLER.post(() -> callback.onProgress(progress, 0));
+            if (documents.size() < CHUNK_SIZE) return;
+            last = documents.get(documents.size() - 1);
+        }
+    }
+}
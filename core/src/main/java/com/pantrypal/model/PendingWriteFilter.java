@@ -0,0 +1,36 @@
+package com.pantrypal.model;
+
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.MetadataChanges;
+import com.google.firebase.firestore.QuerySnapshot;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Item listeners subscribe with MetadataChanges.INCLUDE so a row can drop its pending mark
+// once the server has its write. That also reports every document again whenever a snapshot
+// flips between cache and server, so this keeps only real data changes and pending-write
+// transitions. One per listener; only touched from its snapshot callbacks.
+class PendingWriteFilter {
+
+    private final Set<String> pendingIds = new HashSet<>();
+
+    List<DocumentChange> changes(QuerySnapshot snapshot) {
+        Set<String> dataChanged = new HashSet<>();
+        for (DocumentChange change : snapshot.getDocumentChanges()) {
+            dataChanged.add(change.getDocument().getId());
+        }
+
+        List<DocumentChange> relevant = new ArrayList<>();
+        for (DocumentChange change : snapshot.getDocumentChanges(MetadataChanges.INCLUDE)) {
+            String documentId = change.getDocument().getId();
+            boolean pending = change.getType() != DocumentChange.Type.REMOVED
+                    && change.getDocument().getMetadata().hasPendingWrites();
+            boolean wasPending = pending ? !pendingIds.add(documentId) : pendingIds.remove(documentId);
+            if (dataChanged.contains(documentId) || pending != wasPending) relevant.add(change);
+        }
+        return relevant;
+    }
+}
@@ -0,0 +1,65 @@
+package com.pantrypal.model;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// Collects rapid +/- taps per document and sends them as one atomic increment once the taps
+// stop for DEBOUNCE_MS. Main thread only.
+public class QuantityWriteBuffer {
+
+    private static final long DEBOUNCE_MS = 700;
+
+    private final FirestoreManager firestoreManager;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Map<String, Double> pendingDeltas = new HashMap<>();
+    private final Map<String, Runnable> scheduledFlushes = new HashMap<>();
+
+    public QuantityWriteBuffer(FirestoreManager firestoreManager) {
+        this.firestoreManager = firestoreManager;
+    }
+
+    public void add(String documentId, double delta) {
+        Double pending = pendingDeltas.get(documentId);
+        pendingDeltas.put(documentId, (pending == null ? 0 : pending) + delta);
+
+        Runnable flush = scheduledFlushes.get(documentId);
+        if (flush == null) {
+            flush = () -> flush(documentId);
+            scheduledFlushes.put(documentId, flush);
+        } else {
+            handler.removeCallbacks(flush);
+        }
+        handler.postDelayed(flush, DEBOUNCE_MS);
+    }
+
+    // Change not yet sent for this document; snapshots from the server don't include it
+    public double pendingDelta(String documentId) {
+        Double pending = pendingDeltas.get(documentId);
+        return pending == null ? 0 : pending;
+    }
+
+    public void flushAll() {
+        for (Runnable flush : scheduledFlushes.values()) handler.removeCallbacks(flush);
+        for (String documentId : new HashMap<>(pendingDeltas).keySet()) flush(documentId);
+    }
+
+    private void flush(String documentId) {
+        scheduledFlushes.remove(documentId);
+        Double delta = pendingDeltas.remove(documentId);
+        if (delta == null || delta == 0) return;
+
+        firestoreManager.incrementItemQuantity(documentId, delta, new FirestoreManager.ActionCallback() {
+            @Override
+            public void onSuccess() { }
+
+            @Override
+            public void onFailure(Exception e) {
+                Log.w("Firestore", "Error updating quantity of " + documentId, e);
+            }
+        });
+    }
+}
@@ -0,0 +1,131 @@
+package com.pantrypal.model;
+
+import android.content.Context;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+// The first rows of the last rendered pantry, in a small binary file. MainActivity reads it
+// synchronously on cold start so the first frame already has the list, before Firebase, auth
+// or SQLite are touched. The file is written in the background and replaced atomically.
+public class StartupSnapshot {
+
+    private static final String FILE_NAME = "startup_snapshot.bin";
+    private static final int VERSION = 2;
+    // Enough to fill a tall screen; the rest arrives with the local store a moment later
+    static final int MAX_ROWS = 40;
+
+    private static final Executor WRITE_EXECUTOR = Executors.newSingleThreadExecutor();
+
+    private final String userId;
+    private final List<Item> items;
+
+    StartupSnapshot(String userId, List<Item> items) {
+        this.userId = userId;
+        this.items = items;
+    }
+
+    public String getUserId() { return userId; }
+    public List<Item> getItems() { return items; }
+
+    // Access
+
+    // Null when there is no snapshot or it can't be read
+    public static StartupSnapshot read(Context context) {
+        File file = new File(context.getFilesDir(), FILE_NAME);
+        if (!file.exists()) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            return readFrom(in);
+        } catch (IOException e) {
+            Log.w("Firestore", "Discarding unreadable startup snapshot", e);
+            file.delete();
+            return null;
+        }
+    }
+
+    public static void write(Context context, String userId, List<Item> items) {
+        File dir = context.getFilesDir();
+        List<Item> rows = new ArrayList<>(items.subList(0, Math.min(items.size(), MAX_ROWS)));
+
+        WRITE_EXECUTOR.execute(() -> {
+            File tmp = new File(dir, FILE_NAME + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))) {
+                writeTo(out, userId, rows);
+            } catch (IOException e) {
+                Log.w("Firestore", "Error writing startup snapshot", e);
+                tmp.delete();
+                return;
+            }
+            if (!tmp.renameTo(new File(dir, FILE_NAME))) tmp.delete();
+        });
+    }
+
+    public static void clear(Context context) {
+        File dir = context.getFilesDir();
+        WRITE_EXECUTOR.execute(() -> new File(dir, FILE_NAME).delete());
+    }
+
+    // Encoding
+
+    static void writeTo(DataOutputStream out, String userId, List<Item> items) throws IOException {
+        out.writeInt(VERSION);
+        out.writeUTF(userId);
+        out.writeInt(items.size());
+        for (Item item : items) {
+            out.writeUTF(orEmpty(item.getDocumentId()));
+            out.writeUTF(orEmpty(item.getName()));
+            out.writeDouble(item.getQuantity());
+            out.writeByte(item.getUnitCode());
+            if (item.getUnitCode() == ItemUnit.OTHER) out.writeUTF(orEmpty(item.getUnit()));
+            out.writeLong(item.getPurchaseEpochDay());
+            out.writeLong(item.getExpiryEpochDay());
+        }
+    }
+
+    static StartupSnapshot readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != VERSION) return null;
+        String userId = in.readUTF();
+        int count = in.readInt();
+        if (count < 0 || count > MAX_ROWS) throw new IOException("Bad row count " + count);
+
+        List<Item> items = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Item item = new Item();
+            item.setDocumentId(in.readUTF());
+            item.setName(in.readUTF());
+            item.setQuantity(in.readDouble());
+            int unitCode = in.readByte();
+            if (unitCode != ItemUnit.OTHER) {
+                item.setUnitCode(unitCode);
+            } else {
+                item.setUnit(orNull(in.readUTF()));
+            }
+            item.setPurchaseEpochDay(in.readLong());
+            item.setExpiryEpochDay(in.readLong());
+            item.setUserId(userId);
+            items.add(item);
+        }
+        return new StartupSnapshot(userId, Collections.unmodifiableList(items));
+    }
+
+    private static String orEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String orNull(String value) {
+        return value.isEmpty() ? null : value;
+    }
+}
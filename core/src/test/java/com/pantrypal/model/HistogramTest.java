@@ -0,0 +1,50 @@
+package com.pantrypal.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class HistogramTest {
+
+    @Test
+    public void emptyHistogramReportsZero() {
+        Histogram histogram = new Histogram();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.percentile(0.99));
+        assertEquals(0, histogram.getMean());
+    }
+
+    @Test
+    public void percentilesAreWithinBucketError() {
+        Histogram histogram = new Histogram();
+        for (int value = 1; value <= 10_000; value++) histogram.record(value);
+
+        assertWithinTenPercent(5_000, histogram.percentile(0.50));
+        assertWithinTenPercent(9_500, histogram.percentile(0.95));
+        assertWithinTenPercent(9_900, histogram.percentile(0.99));
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(5_000, histogram.getMean());
+    }
+
+    @Test
+    public void percentileNeverExceedsMax() {
+        Histogram histogram = new Histogram();
+        histogram.record(1_000);
+        assertEquals(1_000, histogram.percentile(0.99));
+    }
+
+    @Test
+    public void resetClearsEverything() {
+        Histogram histogram = new Histogram();
+        histogram.record(42);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+    }
+
+    private static void assertWithinTenPercent(long expected, long actual) {
+        assertTrue("expected ~" + expected + " but was " + actual,
+                actual >= expected && actual <= expected * 1.1);
+    }
+}
@@ -0,0 +1,64 @@
+package com.pantrypal.model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Checks the cached epoch-day expiry sort against ordering by the parsed ISO expiry strings,
+ * the way MainActivity sorted before expiry keys were cached on Item. How long either takes is
+ * measured in the :benchmark module.
+ */
+public class ItemExpiryOrderTest {
+
+    private static final int ITEM_COUNT = 10_000;
+
+    // Parses the stored ISO strings, so it shares nothing with the cached keys
+    private static final Comparator<Item> PARSING_ORDER = (i1, i2) -> LocalDate.parse(i1.getExpiryDate())
+            .compareTo(LocalDate.parse(i2.getExpiryDate()));
+
+    @Test
+    public void sortByCachedEpochDay_matchesParsingSort() {
+        List<Item> items = randomItems(new Random(42));
+
+        List<Item> parsed = new ArrayList<>(items);
+        List<Item> cached = new ArrayList<>(items);
+        Collections.sort(parsed, PARSING_ORDER);
+        Collections.sort(cached, Item.EXPIRY_ORDER);
+
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals(parsed.get(i).getExpiryDate(), cached.get(i).getExpiryDate());
+        }
+    }
+
+    @Test
+    public void itemsWithoutExpirySortLast() {
+        LocalDate today = LocalDate.of(2026, 3, 10);
+        Item salt = new Item("user", "Salt", 1, "kg", today, null);
+        Item milk = new Item("user", "Milk", 1, "L", today, today.plusDays(400));
+        Item jam = new Item("user", "Jam", 1, "pcs", today, today.minusDays(3));
+
+        List<Item> items = new ArrayList<>(Arrays.asList(salt, milk, jam));
+        Collections.sort(items, Item.EXPIRY_ORDER);
+
+        assertEquals(Arrays.asList(jam, milk, salt), items);
+    }
+
+    private static List<Item> randomItems(Random random) {
+        LocalDate today = LocalDate.of(2026, 3, 10);
+        List<Item> items = new ArrayList<>(ITEM_COUNT);
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            LocalDate expiry = today.plusDays(random.nextInt(120) - 30);
+            items.add(new Item("user", "Item " + i, 1, "pcs", today, expiry));
+        }
+        return items;
+    }
+}
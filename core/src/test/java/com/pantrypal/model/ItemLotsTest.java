@@ -0,0 +1,35 @@
+package com.pantrypal.model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.Assert.*;
+
+public class ItemLotsTest {
+
+    private static final LocalDate EXPIRY = LocalDate.of(2026, 3, 17);
+
+    private static Item item(String name, String unit, LocalDate expiry) {
+        return new Item("user", name, 1, unit, LocalDate.of(2026, 3, 10), expiry);
+    }
+
+    @Test
+    public void sameLotGetsTheSameId() {
+        String id = ItemLots.documentId("household", item("Milk", "L", EXPIRY));
+        assertEquals(id, ItemLots.documentId("household", item("  MILK ", "l", EXPIRY)));
+        assertTrue(id.startsWith(ItemLots.PREFIX));
+        assertEquals(ItemLots.PREFIX.length() + 40, id.length());
+    }
+
+    @Test
+    public void ownerUnitAndExpiryTellLotsApart() {
+        String id = ItemLots.documentId("household", item("Milk", "L", EXPIRY));
+        assertNotEquals(id, ItemLots.documentId("other", item("Milk", "L", EXPIRY)));
+        assertNotEquals(id, ItemLots.documentId("household", item("Milk", "ml", EXPIRY)));
+        assertNotEquals(id, ItemLots.documentId("household", item("Milk", "L", EXPIRY.plusDays(1))));
+        assertNotEquals(id, ItemLots.documentId("household", item("Milk", "L", null)));
+        assertNotEquals(ItemLots.documentId("household", item("Jam", "jar", EXPIRY)),
+                ItemLots.documentId("household", item("Jam", "tin", EXPIRY)));
+    }
+}
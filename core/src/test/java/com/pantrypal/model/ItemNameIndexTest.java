@@ -0,0 +1,50 @@
+package com.pantrypal.model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class ItemNameIndexTest {
+
+    private static Item item(String documentId, String name, int expiresInDays) {
+        LocalDate today = LocalDate.now();
+        Item item = new Item("user", name, 1, "pcs", today, today.plusDays(expiresInDays));
+        item.setDocumentId(documentId);
+        return item;
+    }
+
+    @Test
+    public void find_isCaseInsensitiveAndKeepsDuplicates() {
+        ItemNameIndex index = new ItemNameIndex();
+        index.replaceAll(Arrays.asList(item("a", "Milk", 3), item("b", " milk ", 1), item("c", "Eggs", 5)));
+
+        assertEquals(2, index.find("MILK").size());
+        assertEquals("b", index.findSoonestExpiring("milk").getDocumentId());
+    }
+
+    @Test
+    public void apply_followsRenamesAndRemovals() {
+        ItemNameIndex index = new ItemNameIndex();
+        index.replaceAll(Arrays.asList(item("a", "Milk", 3), item("b", "Milk", 1)));
+
+        index.apply(Collections.singletonList(new ItemChange(ItemChange.Type.MODIFIED, item("a", "Oat Milk", 3))), false);
+        index.apply(Collections.singletonList(new ItemChange(ItemChange.Type.REMOVED, item("b", "Milk", 1))), false);
+
+        assertTrue(index.find("milk").isEmpty());
+        assertEquals("a", index.findSoonestExpiring("oat milk").getDocumentId());
+    }
+
+    @Test
+    public void invalidate_stopsAnsweringLookups() {
+        ItemNameIndex index = new ItemNameIndex();
+        index.replaceAll(Collections.singletonList(item("a", "Milk", 3)));
+        index.invalidate();
+
+        assertFalse(index.isLive());
+        assertNull(index.findSoonestExpiring("milk"));
+    }
+}
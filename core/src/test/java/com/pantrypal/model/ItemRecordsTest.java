@@ -0,0 +1,113 @@
+package com.pantrypal.model;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ItemRecordsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    private static List<ItemRecords.Row> readCsv(String csv) throws IOException {
+        List<ItemRecords.Row> rows = new ArrayList<>();
+        try (ItemRecords.Source source = ItemRecords.source(ItemRecords.Format.CSV, new StringReader(csv))) {
+            ItemRecords.Row row;
+            while ((row = source.next()) != null) rows.add(row);
+        }
+        return rows;
+    }
+
+    @Test
+    public void csvRoundTripKeepsEveryField() throws IOException {
+        Item milk = new Item("user", "Milk, \"full\" fat", 1.5, "L", TODAY, TODAY.plusDays(5));
+        Item eggs = new Item("user", "Eggs\non two lines", 12, "pcs", TODAY, null);
+
+        StringWriter out = new StringWriter();
+        try (ItemRecords.Sink sink = ItemRecords.sink(ItemRecords.Format.CSV, out)) {
+            sink.write(milk);
+            sink.write(eggs);
+        }
+
+        List<ItemRecords.Row> rows = readCsv(out.toString());
+        assertEquals(2, rows.size());
+        for (ItemRecords.Row row : rows) assertNull(row.validate());
+
+        Item readMilk = rows.get(0).toItem("other", TODAY);
+        assertEquals(milk.getName(), readMilk.getName());
+        assertEquals(1.5, readMilk.getQuantity(), 0);
+        assertEquals("L", readMilk.getUnit());
+        assertEquals(milk.getExpiryEpochDay(), readMilk.getExpiryEpochDay());
+        assertEquals("other", readMilk.getUserId());
+
+        Item readEggs = rows.get(1).toItem("other", TODAY);
+        assertEquals(eggs.getName(), readEggs.getName());
+        assertEquals(Item.NO_EXPIRY, readEggs.getExpiryEpochDay());
+        assertEquals(3, rows.get(1).getLine());
+    }
+
+    @Test
+    public void headerColumnsMatchInAnyOrderAndCase() throws IOException {
+        List<ItemRecords.Row> rows = readCsv("\uFEFFUnit,Name,Notes,QUANTITY\r\nkg,Rice,bulk,2\r\n\r\nml,Oil,,500");
+        assertEquals(2, rows.size());
+
+        Item rice = rows.get(0).toItem("user", TODAY);
+        assertEquals("Rice", rice.getName());
+        assertEquals(ItemUnit.KG, rice.getUnitCode());
+        assertEquals(TODAY.toEpochDay(), rice.getPurchaseEpochDay());
+        assertEquals(4, rows.get(1).getLine());
+    }
+
+    @Test
+    public void rowsFollowAddActivityRules() throws IOException {
+        List<ItemRecords.Row> rows = readCsv("name,quantity,unit,expiryDate\n"
+                + ",1,pcs,\n"
+                + "Apples,1.5,pcs,\n"
+                + "Flour,0,kg,\n"
+                + "Salt,abc,g,\n"
+                + "Jam,1,jar,\n"
+                + "Tea,1,pcs,2026-13-01\n");
+
+        assertEquals("Item name required", rows.get(0).validate());
+        assertEquals("Pieces must be whole numbers", rows.get(1).validate());
+        assertEquals("Must be > 0", rows.get(2).validate());
+        assertEquals("Invalid number", rows.get(3).validate());
+        assertEquals("Unknown unit", rows.get(4).validate());
+        assertEquals("Invalid Expiry Date", rows.get(5).validate());
+    }
+
+    // The one rule that differs from AddActivity, so exports of such items import again
+    @Test
+    public void blankExpiryImportsWithoutExpiry() throws IOException {
+        List<ItemRecords.Row> rows = readCsv("name,quantity,unit,expiryDate\nSalt,1,kg,\n");
+
+        assertNull(rows.get(0).validate());
+        assertEquals(Item.NO_EXPIRY, rows.get(0).toItem("user", TODAY).getExpiryEpochDay());
+    }
+
+    @Test
+    public void formulaLikeCellsAreExportedAsText() throws IOException {
+        Item sum = new Item("user", "=SUM(A1:A9)", 1, "pcs", TODAY, null);
+        Item dash = new Item("user", "-Rice, brown", 2, "kg", TODAY, null);
+
+        StringWriter out = new StringWriter();
+        try (ItemRecords.Sink sink = ItemRecords.sink(ItemRecords.Format.CSV, out)) {
+            sink.write(sum);
+            sink.write(dash);
+        }
+
+        String csv = out.toString();
+        assertTrue(csv.contains("\r\n'=SUM(A1:A9),"));
+        assertTrue(csv.contains("\r\n\"'-Rice, brown\","));
+
+        List<ItemRecords.Row> rows = readCsv(csv);
+        assertEquals("=SUM(A1:A9)", rows.get(0).toItem("user", TODAY).getName());
+        assertEquals("-Rice, brown", rows.get(1).toItem("user", TODAY).getName());
+    }
+}
@@ -0,0 +1,59 @@
+package com.pantrypal.model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ItemRowStatesTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    private static Item item(String name, LocalDate expiry) {
+        Item item = new Item("user", name, 2, "L", TODAY, expiry);
+        item.setDocumentId(name);
+        return item;
+    }
+
+    @Test
+    public void unchangedItemsKeepTheirState() {
+        Item milk = item("Milk", TODAY.plusDays(3));
+        Item eggs = item("Eggs", TODAY.plusDays(10));
+        ItemRowStates rowStates = new ItemRowStates();
+
+        List<ItemRowState> first = rowStates.map(Arrays.asList(milk, eggs), TODAY.toEpochDay());
+        Item newEggs = eggs.copy();
+        newEggs.setQuantity(3);
+        List<ItemRowState> second = rowStates.map(Arrays.asList(milk, newEggs), TODAY.toEpochDay());
+
+        assertSame(first.get(0), second.get(0));
+        assertNotSame(first.get(1), second.get(1));
+        assertFalse(first.get(1).looksLike(second.get(1)));
+        assertEquals("Expires in 3 days", first.get(0).getExpiryText());
+    }
+
+    @Test
+    public void dayChangeOnlyRelabelsExpiry() {
+        Item milk = item("Milk", TODAY.plusDays(1));
+        Item salt = item("Salt", null);
+        ItemRowStates rowStates = new ItemRowStates();
+
+        List<ItemRowState> before = rowStates.map(Arrays.asList(milk, salt), TODAY.toEpochDay());
+        List<ItemRowState> after = rowStates.map(Arrays.asList(milk, salt), TODAY.plusDays(1).toEpochDay());
+
+        assertFalse(before.get(0).looksLike(after.get(0)));
+        assertEquals(ItemRowText.expiryText(0), after.get(0).getExpiryText());
+        assertSame(before.get(0).getQuantityText(), after.get(0).getQuantityText());
+        assertSame(before.get(1), after.get(1));
+    }
+
+    @Test
+    public void expiryLabelsAreReused() {
+        assertSame(ItemRowText.expiryText(5), ItemRowText.expiryText(5));
+        assertSame(ItemRowText.expiryText(-2), ItemRowText.expiryText(-2));
+        assertEquals(ItemRowText.expiryText(1000), ItemRowText.expiryText(1000));
+    }
+}
@@ -0,0 +1,62 @@
+package com.pantrypal.model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ItemSearchIndexTest {
+
+    private static Item item(String documentId, String name) {
+        LocalDate today = LocalDate.now();
+        Item item = new Item("user", name, 1, "pcs", today, today);
+        item.setDocumentId(documentId);
+        return item;
+    }
+
+    private static List<String> ids(List<Item> items) {
+        List<String> ids = new ArrayList<>();
+        for (Item item : items) ids.add(item.getDocumentId());
+        Collections.sort(ids);
+        return ids;
+    }
+
+    @Test
+    public void search_matchesSubstringsOfAnyLength() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.replaceAll(Arrays.asList(item("a", "Whole Milk"), item("b", "Oat milk"), item("c", "Eggs")));
+
+        assertEquals(Arrays.asList("a", "b"), ids(index.search("MILK")));
+        assertEquals(Arrays.asList("a", "b"), ids(index.search("mi")));
+        assertEquals(Collections.singletonList("c"), ids(index.search("g")));
+        assertTrue(index.search("milks").isEmpty());
+    }
+
+    @Test
+    public void search_rejectsTrigramFalsePositives() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.replaceAll(Collections.singletonList(item("a", "abcxbcd")));
+
+        assertTrue(index.search("abcd").isEmpty());
+    }
+
+    @Test
+    public void apply_patchesRenamesAndRemovals() {
+        ItemSearchIndex index = new ItemSearchIndex();
+        index.replaceAll(Arrays.asList(item("a", "Milk"), item("b", "Bread")));
+
+        index.apply(Arrays.asList(
+                new ItemChange(ItemChange.Type.MODIFIED, item("a", "Butter")),
+                new ItemChange(ItemChange.Type.REMOVED, item("b", "Bread")),
+                new ItemChange(ItemChange.Type.ADDED, item("c", "Buttermilk"))));
+
+        assertEquals(Collections.singletonList("c"), ids(index.search("milk")));
+        assertEquals(Arrays.asList("a", "c"), ids(index.search("butt")));
+        assertTrue(index.search("bread").isEmpty());
+    }
+}
@@ -0,0 +1,57 @@
+package com.pantrypal.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+
+public class ItemUnitTest {
+
+    @Test
+    public void knownUnitsRoundTripThroughCodes() {
+        for (String unit : new String[]{"pcs", "kg", "g", "L", "ml"}) {
+            assertEquals(unit, ItemUnit.nameOf(ItemUnit.codeOf(unit)));
+        }
+        assertEquals(ItemUnit.PCS, ItemUnit.codeOf("PCS"));
+    }
+
+    @Test
+    public void unknownUnitsAreOther() {
+        assertEquals(ItemUnit.OTHER, ItemUnit.codeOf("tin"));
+        assertEquals(ItemUnit.OTHER, ItemUnit.codeOf(null));
+        assertNull(ItemUnit.nameOf(ItemUnit.OTHER));
+        assertNull(ItemUnit.nameOf(42));
+    }
+
+    @Test
+    public void itemKeepsUnitTextAndCodeInStep() {
+        Item item = new Item();
+        item.setUnitCode(ItemUnit.PCS);
+        assertEquals("pcs", item.getUnit());
+        assertTrue(item.isCountable());
+
+        item.setUnit("tin");
+        assertEquals(ItemUnit.OTHER, item.getUnitCode());
+        assertFalse(item.isCountable());
+    }
+
+    @Test
+    public void epochDaysFormatToIsoDatesOnDemand() {
+        LocalDate expiry = LocalDate.of(2026, 1, 17);
+        Item item = new Item();
+        item.setExpiryEpochDay(expiry.toEpochDay());
+        assertEquals("2026-01-17", item.getExpiryDate());
+        assertEquals(expiry, item.getExpiryDateAsLocal());
+
+        item.setPurchaseDate("2026-01-10");
+        assertEquals(LocalDate.of(2026, 1, 10).toEpochDay(), item.getPurchaseEpochDay());
+
+        item.setExpiryEpochDay(Item.NO_EXPIRY);
+        assertNull(item.getExpiryDate());
+        assertEquals(0, item.getDaysUntilExpiry(100));
+    }
+}
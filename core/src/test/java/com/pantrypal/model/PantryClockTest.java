@@ -0,0 +1,57 @@
+package com.pantrypal.model;
+
+import org.junit.Test;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PantryClockTest {
+
+    private static final ZoneId ZONE = ZoneOffset.UTC;
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    private static Clock at(LocalDate day, int hour, int minute) {
+        return Clock.fixed(day.atTime(hour, minute).atZone(ZONE).toInstant(), ZONE);
+    }
+
+    @Test
+    public void listenersHearEachNewDayOnce() {
+        PantryClock clock = new PantryClock(at(TODAY, 23, 59));
+        List<Long> days = new ArrayList<>();
+        clock.addDayListener(days::add);
+
+        assertFalse(clock.checkDay());
+        clock.setClock(at(TODAY.plusDays(1), 0, 0));
+        assertFalse(clock.checkDay());
+
+        assertEquals(1, days.size());
+        assertEquals(TODAY.plusDays(1).toEpochDay(), (long) days.get(0));
+        assertEquals(TODAY.plusDays(1), clock.today());
+    }
+
+    @Test
+    public void millisUntilNextDayCountsToMidnight() {
+        assertEquals(60_000, new PantryClock(at(TODAY, 23, 59)).millisUntilNextDay());
+        assertEquals(24 * 60 * 60_000, new PantryClock(at(TODAY, 0, 0)).millisUntilNextDay());
+    }
+
+    @Test
+    public void itemsCountDaysOnTheSystemClock() {
+        PantryClock system = PantryClock.system();
+        Item milk = new Item("user", "Milk", 1, "L", TODAY, TODAY.plusDays(3));
+        try {
+            system.setClock(at(TODAY, 12, 0));
+            assertEquals(3, milk.getDaysUntilExpiry());
+            system.setClock(at(TODAY.plusDays(5), 12, 0));
+            assertEquals(-2, milk.getDaysUntilExpiry());
+        } finally {
+            system.setClock(Clock.systemDefaultZone());
+        }
+    }
+}
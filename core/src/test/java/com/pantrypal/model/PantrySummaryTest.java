@@ -0,0 +1,71 @@
+package com.pantrypal.model;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class PantrySummaryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 10);
+
+    private static Item item(double quantity, String unit, LocalDate expiry) {
+        return new Item("user", "item", quantity, unit, TODAY, expiry);
+    }
+
+    @Test
+    public void bucketsMatchTheListColors() {
+        PantrySummary summary = PantrySummary.of(Arrays.asList(
+                item(1, "pcs", TODAY.minusDays(1)),
+                item(1, "pcs", TODAY),
+                item(1, "pcs", TODAY.plusDays(1)),
+                item(1, "pcs", TODAY.plusDays(7)),
+                item(1, "pcs", TODAY.plusDays(8)),
+                item(1, "pcs", null)), TODAY.toEpochDay());
+
+        assertEquals(6, summary.getTotalItems());
+        assertEquals(1, summary.getExpired());
+        assertEquals(1, summary.getExpiringToday());
+        assertEquals(2, summary.getExpiringThisWeek());
+    }
+
+    @Test
+    public void quantitiesAreSummedPerUnitCode() {
+        PantrySummary summary = PantrySummary.of(Arrays.asList(
+                item(2, "kg", null),
+                item(0.5, "kg", null),
+                item(3, "tin", null),
+                item(1, "jar", null),
+                item(0, "ml", null)), TODAY.toEpochDay());
+
+        assertEquals(2.5, summary.getQuantityByUnit().get(ItemUnit.KG), 0);
+        assertEquals(4, summary.getQuantityByUnit().get(ItemUnit.OTHER), 0);
+        assertFalse(summary.getQuantityByUnit().containsKey(ItemUnit.ML));
+    }
+
+    @Test
+    public void dayChangeRebucketsLikeAFreshCount() {
+        List<Item> items = Arrays.asList(
+                item(1, "pcs", TODAY.minusDays(1)),
+                item(1, "pcs", TODAY),
+                item(1, "pcs", TODAY.plusDays(1)),
+                item(1, "pcs", TODAY.plusDays(1)),
+                item(1, "pcs", TODAY.plusDays(8)),
+                item(2, "kg", null));
+        PantrySummary summary = PantrySummary.of(items, TODAY.toEpochDay());
+
+        for (int days = 1; days <= 10; days++) {
+            long day = TODAY.plusDays(days).toEpochDay();
+            PantrySummary shifted = summary.onDay(items, day);
+            PantrySummary counted = PantrySummary.of(items, day);
+            assertEquals(counted.getTotalItems(), shifted.getTotalItems());
+            assertEquals(counted.getExpired(), shifted.getExpired());
+            assertEquals(counted.getExpiringToday(), shifted.getExpiringToday());
+            assertEquals(counted.getExpiringThisWeek(), shifted.getExpiringThisWeek());
+            assertEquals(counted.getQuantityByUnit(), shifted.getQuantityByUnit());
+        }
+    }
+}
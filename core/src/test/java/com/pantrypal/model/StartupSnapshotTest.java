@@ -0,0 +1,65 @@
+package com.pantrypal.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class StartupSnapshotTest {
+
+    @Test
+    public void roundTripKeepsRowsAndOrder() throws IOException {
+        List<Item> items = new ArrayList<>();
+        items.add(item("a", "Milk", 2, "2026-01-05"));
+        items.add(item("b", "Rice", 1.5, null));
+        items.get(1).setUnit("tin");
+
+        StartupSnapshot snapshot = roundTrip("user-1", items);
+
+        assertEquals("user-1", snapshot.getUserId());
+        assertEquals(2, snapshot.getItems().size());
+        Item milk = snapshot.getItems().get(0);
+        assertEquals("a", milk.getDocumentId());
+        assertEquals("Milk", milk.getName());
+        assertEquals("2026-01-05", milk.getExpiryDate());
+        assertTrue(milk.isCountable());
+        assertEquals(item("x", "x", 0, "2026-01-05").getExpiryEpochDay(), milk.getExpiryEpochDay());
+        Item rice = snapshot.getItems().get(1);
+        assertEquals(1.5, rice.getQuantity(), 0);
+        assertEquals("tin", rice.getUnit());
+        assertNull(rice.getExpiryDate());
+        assertEquals(Item.NO_EXPIRY, rice.getExpiryEpochDay());
+    }
+
+    @Test
+    public void unknownVersionIsIgnored() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new DataOutputStream(bytes).writeInt(99);
+        assertNull(StartupSnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+
+    private static StartupSnapshot roundTrip(String userId, List<Item> items) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        StartupSnapshot.writeTo(new DataOutputStream(bytes), userId, items);
+        return StartupSnapshot.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    private static Item item(String documentId, String name, double quantity, String expiryDate) {
+        Item item = new Item();
+        item.setDocumentId(documentId);
+        item.setName(name);
+        item.setQuantity(quantity);
+        item.setUnit("pcs");
+        item.setExpiryDate(expiryDate);
+        return item;
+    }
+}
@@ -0,0 +1,40 @@
+plugins {
+    alias(libs.plugins.android.test)
+    alias(libs.plugins.androidx.baselineprofile)
+}
+
+// Cold-start macrobenchmarks and the baseline profile generator for :app. Both need a device
+// (API 28+) and a test account that is signed in, or passed as instrumentation arguments:
+//   -Pandroid.testInstrumentationRunnerArguments.pantrypal.email=...
+//   -Pandroid.testInstrumentationRunnerArguments.pantrypal.password=...
+// ./gradlew :macrobenchmark:connectedBenchmarkReleaseAndroidTest runs the benchmarks;
+// ./gradlew :app:generateBaselineProfile regenerates app/src/release/generated/baselineProfiles.
+android {
+    namespace = "com.pantrypal.macrobenchmark"
+    compileSdk {
+        version = release(36)
+    }
+
+    defaultConfig {
+        minSdk = 28
+        targetSdk = 36
+
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+    }
+
+    targetProjectPath = ":app"
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_11
+        targetCompatibility = JavaVersion.VERSION_11
+    }
+}
+
+baselineProfile {
+    useConnectedDevices = true
+}
+
+dependencies {
+    implementation(libs.ext.junit)
+    implementation(libs.uiautomator)
+    implementation(libs.benchmark.macro.junit4)
+}
@@ -0,0 +1,38 @@
+package com.pantrypal.macrobenchmark;
+
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import kotlin.Unit;
+
+// Records the cold start and a scroll through the list. Run via :app:generateBaselineProfile.
+@RunWith(AndroidJUnit4.class)
+public class BaselineProfileGenerator {
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    @Test
+    public void generate() {
+        baselineProfileRule.collect(
+                PantryJourneys.PACKAGE_NAME,
+                /* maxIterations = */ 15,
+                /* stableIterations = */ 3,
+                /* outputFilePrefix = */ null,
+                /* includeInStartupProfile = */ true,
+                /* strictStability = */ false,
+                /* filterPredicate = */ rule -> true,
+                /* profileBlock = */ scope -> {
+                    PantryJourneys.ensureSignedIn(scope);
+                    scope.pressHome();
+                    scope.startActivityAndWait();
+                    PantryJourneys.waitForList(scope.getDevice());
+                    PantryJourneys.scrollList(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}
@@ -0,0 +1,55 @@
+package com.pantrypal.macrobenchmark;
+
+import android.os.Bundle;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Direction;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.UiObject2;
+import androidx.test.uiautomator.Until;
+
+// UI steps shared by the startup benchmark and the baseline profile generator
+final class PantryJourneys {
+
+    static final String PACKAGE_NAME = "com.pantrypal";
+    static final String EXTRA_SKIP_STARTUP_SNAPSHOT = "com.pantrypal.SKIP_STARTUP_SNAPSHOT";
+
+    private static final long TIMEOUT_MS = 10_000;
+
+    private PantryJourneys() { }
+
+    // Launches once and signs in with the instrumentation arguments if the login screen shows
+    static void ensureSignedIn(MacrobenchmarkScope scope) {
+        scope.startActivityAndWait();
+        UiDevice device = scope.getDevice();
+        if (device.wait(Until.hasObject(By.res(PACKAGE_NAME, "recyclerViewItems")), TIMEOUT_MS)) return;
+
+        Bundle arguments = InstrumentationRegistry.getArguments();
+        String email = arguments.getString("pantrypal.email");
+        String password = arguments.getString("pantrypal.password");
+        if (email == null || password == null) {
+            throw new IllegalStateException("Not signed in and no pantrypal.email/pantrypal.password given");
+        }
+
+        device.findObject(By.res(PACKAGE_NAME, "etEmail")).setText(email);
+        device.findObject(By.res(PACKAGE_NAME, "etPassword")).setText(password);
+        device.findObject(By.res(PACKAGE_NAME, "btnLogin")).click();
+        waitForList(device);
+    }
+
+    static void waitForList(UiDevice device) {
+        device.wait(Until.hasObject(By.res(PACKAGE_NAME, "tvItemName")), TIMEOUT_MS);
+    }
+
+    static void scrollList(UiDevice device) {
+        UiObject2 list = device.findObject(By.res(PACKAGE_NAME, "recyclerViewItems"));
+        if (list == null) return;
+        list.setGestureMargin(device.getDisplayWidth() / 5);
+        list.fling(Direction.DOWN);
+        device.waitForIdle();
+        list.fling(Direction.UP);
+        device.waitForIdle();
+    }
+}
@@ -0,0 +1,76 @@
+package com.pantrypal.macrobenchmark;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import kotlin.Unit;
+
+// Cold start to the first list frame. MainActivity calls reportFullyDrawn() when the list is
+// first shown, so timeToFullDisplayMs is the number to compare: with and without the startup
+// snapshot, and with and without the baseline profile.
+@RunWith(Parameterized.class)
+public class StartupBenchmark {
+
+    @Parameterized.Parameters(name = "snapshot={0},profile={1}")
+    public static Collection<Object[]> parameters() {
+        return Arrays.asList(new Object[][]{
+                {false, false},
+                {true, false},
+                {false, true},
+                {true, true},
+        });
+    }
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final boolean useSnapshot;
+    private final boolean useBaselineProfile;
+
+    public StartupBenchmark(boolean useSnapshot, boolean useBaselineProfile) {
+        this.useSnapshot = useSnapshot;
+        this.useBaselineProfile = useBaselineProfile;
+    }
+
+    @Test
+    public void coldStartToFirstListFrame() {
+        CompilationMode compilationMode = useBaselineProfile
+                ? new CompilationMode.Partial(BaselineProfileMode.Require)
+                : new CompilationMode.None();
+
+        benchmarkRule.measureRepeated(
+                PantryJourneys.PACKAGE_NAME,
+                Collections.singletonList(new StartupTimingMetric()),
+                compilationMode,
+                StartupMode.COLD,
+                10,
+                scope -> {
+                    // Leaving the list writes the snapshot the measured launch reads; COLD mode
+                    // kills the process before the measure block
+                    PantryJourneys.ensureSignedIn(scope);
+                    scope.pressHome();
+                    scope.getDevice().waitForIdle();
+                    return Unit.INSTANCE;
+                },
+                scope -> {
+                    scope.startActivityAndWait(intent -> {
+                        intent.putExtra(PantryJourneys.EXTRA_SKIP_STARTUP_SNAPSHOT, !useSnapshot);
+                        return Unit.INSTANCE;
+                    });
+                    PantryJourneys.waitForList(scope.getDevice());
+                    return Unit.INSTANCE;
+                });
+    }
+}
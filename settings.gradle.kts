@@ -21,4 +21,7 @@ dependencyResolutionManagement {
 
 rootProject.name = "PantryPal"
 include(":app")
+include(":core")
+include(":benchmark")
+include(":macrobenchmark")
  
\ No newline at end of file